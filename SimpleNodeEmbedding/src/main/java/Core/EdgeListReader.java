@@ -0,0 +1,49 @@
+package Core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Reads graphs in the {@code Graphs/*.txt} edge-list format: a header line followed by
+ * one {@code source destination [weight]} line per edge, separated by single spaces.
+ */
+public final class EdgeListReader {
+    private static final int HEADER_LINES = 1;
+
+    private EdgeListReader() {
+    }
+
+    /**
+     * Reads an edge-list file into an immutable graph with integer vertices.
+     *
+     * <p>Vertices are numbered in order of first appearance, so every process that
+     * reads the same file builds the same {@link VertexIndexMapping}.</p>
+     *
+     * @param file the edge-list file
+     * @param graphType whether edges are directed or bidirectional
+     * @return the graph snapshot
+     * @throws IOException if the file cannot be read
+     * @throws IllegalStateException if the file contains no edges
+     */
+    public static ImmutableGraphData<Integer> read(Path file, GraphType graphType) throws IOException {
+        Objects.requireNonNull(file, "file");
+        var graphBuilder = new GraphBuilder<Integer>(graphType);
+        try (var lines = Files.lines(file)) {
+            lines.skip(HEADER_LINES).forEach(line -> {
+                String[] currentLine = line.trim().split(" ");
+                var source = Integer.parseInt(currentLine[0]);
+                var destination = Integer.parseInt(currentLine[1]);
+                var weight = currentLine.length >= 3 ? Float.parseFloat(currentLine[2]) : 1.0f;
+                graphBuilder.addConnection(source, destination, weight);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return graphBuilder
+                .ifNotEmpty()
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+package Core;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable batch of edge insertions and deletions applied to an evolving graph.
+ *
+ * <p>Edges are interpreted with the type of the graph they are applied to: on a
+ * bidirectional graph each edge also adds or removes its reverse. Removals match
+ * edges by source and destination and ignore the weight.</p>
+ *
+ * @param addedEdges edges to insert; vertices not yet in the graph are added
+ * @param removedEdges edges to delete; unknown edges are ignored
+ * @param <V> the vertex type
+ */
+public record GraphDelta<V>(List<Edge<V>> addedEdges, List<Edge<V>> removedEdges) {
+    /**
+     * Constructs a delta, defensively copying both lists.
+     *
+     * @throws NullPointerException if any argument is null
+     */
+    public GraphDelta {
+        addedEdges = List.copyOf(Objects.requireNonNull(addedEdges, "addedEdges"));
+        removedEdges = List.copyOf(Objects.requireNonNull(removedEdges, "removedEdges"));
+    }
+}
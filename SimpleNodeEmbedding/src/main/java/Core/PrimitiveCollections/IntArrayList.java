@@ -0,0 +1,156 @@
+package Core.PrimitiveCollections;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive {@code int} values.
+ *
+ * <p>Used in place of {@code List<Integer>} on hot paths where boxing
+ * and per-element objects would dominate memory and time.</p>
+ */
+public class IntArrayList {
+    private int[] elements;
+    private int size;
+
+    /**
+     * Creates an empty list with a small default capacity.
+     */
+    public IntArrayList() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty list with the given initial capacity.
+     *
+     * @param initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public IntArrayList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity must be non-negative");
+        }
+        this.elements = new int[initialCapacity];
+    }
+
+    /**
+     * Appends a value to the end of the list.
+     *
+     * @param value the value to append
+     */
+    public void add(int value) {
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * Appends the first {@code length} values of an array.
+     *
+     * @param values the source array
+     * @param length number of values to copy
+     */
+    public void addAll(int[] values, int length) {
+        if (size + length > elements.length) {
+            grow(size + length);
+        }
+        System.arraycopy(values, 0, elements, size, length);
+        size += length;
+    }
+
+    /**
+     * Appends all values of another list.
+     *
+     * @param other the list to append
+     */
+    public void addAll(IntArrayList other) {
+        addAll(other.elements, other.size);
+    }
+
+    /**
+     * Returns the value at the given position.
+     *
+     * @param index the position
+     * @return the stored value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds");
+        }
+        return elements[index];
+    }
+
+    /**
+     * Replaces the value at the given position.
+     *
+     * @param index the position
+     * @param value the new value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void set(int index, int value) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds");
+        }
+        elements[index] = value;
+    }
+
+    /**
+     * Removes the value at the given position, shifting later values down.
+     *
+     * @param index the position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void removeAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds");
+        }
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+    }
+
+    /**
+     * Returns the number of stored values.
+     *
+     * @return the list size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all values while keeping the allocated capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns the backing array; only the first {@link #size()} entries are valid.
+     *
+     * @return the backing array
+     */
+    public int[] elements() {
+        return elements;
+    }
+
+    /**
+     * Returns a trimmed copy of the stored values.
+     *
+     * @return array of length {@link #size()}
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    private void grow(int minCapacity) {
+        long newCapacity = Math.max((long) minCapacity, Math.max(16L, (long) elements.length + (elements.length >> 1)));
+        if (newCapacity > Integer.MAX_VALUE - 8) {
+            if (minCapacity > Integer.MAX_VALUE - 8) {
+                throw new OutOfMemoryError("IntArrayList cannot grow beyond " + (Integer.MAX_VALUE - 8));
+            }
+            newCapacity = Integer.MAX_VALUE - 8;
+        }
+        elements = Arrays.copyOf(elements, (int) newCapacity);
+    }
+}
@@ -0,0 +1,180 @@
+package Core.PrimitiveCollections;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from non-negative {@code int} keys to {@code long} values.
+ *
+ * <p>Keys and values live in two parallel arrays probed linearly, with {@code -1}
+ * marking free slots, so counting into the map allocates nothing per entry.
+ * Used in place of {@code Map<Integer, Long>} for visit counts and similar
+ * sparse tallies over vertex indices. Not thread-safe.</p>
+ */
+public class IntLongHashMap {
+    private static final int FREE = -1;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private long[] values;
+    private int size;
+    private int mask;
+
+    /**
+     * Creates an empty map with a small default capacity.
+     */
+    public IntLongHashMap() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty map that holds the given number of entries without resizing.
+     *
+     * @param expectedSize the expected number of entries
+     * @throws IllegalArgumentException if the size is negative
+     */
+    public IntLongHashMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must be non-negative");
+        }
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Adds to the value of a key, inserting the key with value {@code delta} if absent.
+     *
+     * @param key a non-negative key
+     * @param delta the value to add
+     * @return the new value
+     * @throws IllegalArgumentException if the key is negative
+     */
+    public long addTo(int key, long delta) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Keys must be non-negative");
+        }
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                values[slot] += delta;
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size > keys.length * LOAD_FACTOR) {
+            rehash(keys.length * 2);
+        }
+        return delta;
+    }
+
+    /**
+     * Returns the value of a key.
+     *
+     * @param key the key
+     * @return the value, or 0 if the key is absent
+     */
+    public long get(int key) {
+        if (key < 0) {
+            return 0;
+        }
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * Adds every entry of another map to this one.
+     *
+     * @param other the map to merge in
+     */
+    public void addAll(IntLongHashMap other) {
+        for (int slot = 0; slot < other.keys.length; slot++) {
+            if (other.keys[slot] != FREE) {
+                addTo(other.keys[slot], other.values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Calls the consumer once for every entry, in no particular order.
+     *
+     * @param consumer receives every key and value
+     */
+    public void forEach(IntLongConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every entry, keeping the allocated capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != FREE) {
+                int target = mix(oldKeys[slot]) & mask;
+                while (keys[target] != FREE) {
+                    target = (target + 1) & mask;
+                }
+                keys[target] = oldKeys[slot];
+                values[target] = oldValues[slot];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, FREE);
+        mask = capacity - 1;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long needed = Math.max(4, (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1);
+        if (needed > 1 << 30) {
+            throw new IllegalArgumentException("expectedSize is too large");
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Receives the entries of an {@link IntLongHashMap}.
+     */
+    @FunctionalInterface
+    public interface IntLongConsumer {
+        /**
+         * @param key the key
+         * @param value the value
+         */
+        void accept(int key, long value);
+    }
+}
@@ -0,0 +1,41 @@
+package Core;
+
+/**
+ * Derives the seeds of independent random streams from one run seed.
+ *
+ * <p>Parallel stages split their work into chunks, walks or batches and give each its
+ * own stream seeded from the run seed and its index, so the results do not depend on
+ * which thread handles which chunk.</p>
+ */
+public final class Seeds {
+    // 2^64 / golden ratio, the SplitMix64 increment
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private Seeds() {
+    }
+
+    /**
+     * Returns the seed of the stream with the given index.
+     *
+     * @param seed the run seed
+     * @param index the chunk, walk or batch index
+     * @return {@code seed ^ ((index + 1) * 0x9E3779B97F4A7C15L)}
+     */
+    public static long forIndex(long seed, long index) {
+        return seed ^ ((index + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Derives a well-distributed 64-bit value from a seed and a position (SplitMix64 finalizer).
+     *
+     * @param seed the generator seed
+     * @param position the chunk or element position
+     * @return the mixed value
+     */
+    public static long mix(long seed, long position) {
+        long z = seed + (position + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
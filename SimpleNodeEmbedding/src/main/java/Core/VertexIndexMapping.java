@@ -1,6 +1,7 @@
 package Core;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Provides a bidirectional mapping between graph vertices and
@@ -9,11 +10,19 @@ import java.util.*;
  * <p>The mapping preserves the iteration order of the underlying
  * graph vertex set and is immutable after construction.</p>
  *
+ * <p>{@link #withVertices} extends a mapping without copying it: the extended mapping
+ * appends the new vertices to storage it shares with this one, which keeps seeing only
+ * its own first {@link #size()} vertices. Only extending a mapping that has already been
+ * extended copies its vertices, into storage of its own.</p>
+ *
  * @param <V> the vertex type
  */
 public class VertexIndexMapping<V> {
-    private final Map<V, Integer> vertexToIndex;
-    private final List<V> indexToVertex;
+    private final Storage<V> storage;
+    // the storage may have moved to a larger array since, but the first size slots never change
+    private final Object[] indexToVertex;
+    private final int size;
+    private final Map<V, Integer> vertexToIndex = new IndexView();
 
     /**
      * Constructs an index mapping from immutable graph data.
@@ -21,12 +30,50 @@ public class VertexIndexMapping<V> {
      * @param immutableGraphData the graph snapshot containing ordered vertices
      */
     public VertexIndexMapping(ImmutableGraphData<V> immutableGraphData) {
-        indexToVertex = List.copyOf(Objects.requireNonNull(immutableGraphData).vertexSet());
-        Map<V, Integer> mapper = new HashMap<>();
-        for (int index = 0; index < indexToVertex.size(); index++) {
-            mapper.putIfAbsent(indexToVertex.get(index), index);
+        this(Objects.requireNonNull(immutableGraphData).vertexSet());
+    }
+
+    private VertexIndexMapping(Collection<V> orderedVertices) {
+        this.storage = new Storage<>(orderedVertices.size());
+        this.size = storage.append(orderedVertices);
+        this.indexToVertex = storage.vertices;
+    }
+
+    private VertexIndexMapping(Storage<V> storage, Object[] indexToVertex, int size) {
+        this.storage = storage;
+        this.indexToVertex = indexToVertex;
+        this.size = size;
+    }
+
+    /**
+     * Returns a mapping that keeps every existing index and appends the given
+     * vertices that are not mapped yet, in iteration order.
+     *
+     * @param vertices the vertices to add
+     * @return the extended mapping, or this mapping if nothing was added
+     */
+    public VertexIndexMapping<V> withVertices(Collection<V> vertices) {
+        Objects.requireNonNull(vertices, "vertices");
+        synchronized (storage) {
+            if (storage.size != size) {
+                List<V> prefix = new ArrayList<>(size);
+                for (int index = 0; index < size; index++) {
+                    prefix.add(getVertex(index));
+                }
+                return new VertexIndexMapping<>(prefix).withVertices(vertices);
+            }
+            int extended = storage.append(vertices);
+            return extended == size ? this : new VertexIndexMapping<>(storage, storage.vertices, extended);
         }
-        vertexToIndex = Collections.unmodifiableMap(mapper);
+    }
+
+    /**
+     * Returns the number of mapped vertices.
+     *
+     * @return the vertex count
+     */
+    public int size() {
+        return size;
     }
 
     /**
@@ -38,6 +85,16 @@ public class VertexIndexMapping<V> {
         return vertexToIndex;
     }
 
+    /**
+     * Returns whether a vertex is mapped.
+     *
+     * @param vertex the vertex to look up
+     * @return true if the vertex has an index
+     */
+    public boolean contains(V vertex) {
+        return indexOf(vertex) >= 0;
+    }
+
     /**
      * Returns the index associated with a given vertex.
      *
@@ -46,10 +103,11 @@ public class VertexIndexMapping<V> {
      * @throws IllegalArgumentException if the vertex does not exist
      */
     public int indexForVertex(V vertex) {
-        if (!vertexToIndex.containsKey(vertex)) {
+        int index = indexOf(vertex);
+        if (index < 0) {
             throw new IllegalArgumentException("Vertex " + vertex + " does not exist");
         }
-        return vertexToIndex.get(vertex);
+        return index;
     }
 
     /**
@@ -59,10 +117,99 @@ public class VertexIndexMapping<V> {
      * @return vertex at the given index
      * @throws IllegalArgumentException if the index is out of bounds
      */
+    @SuppressWarnings("unchecked")
     public V getVertex(int index) {
-        if (index < 0 || index >= indexToVertex.size()) {
+        if (index < 0 || index >= size) {
             throw new IllegalArgumentException("Index " + index + " is out of bounds");
         }
-        return indexToVertex.get(index);
+        return (V) indexToVertex[index];
+    }
+
+    private int indexOf(Object vertex) {
+        if (vertex == null) {
+            return -1;
+        }
+        Integer index = storage.indices.get(vertex);
+        return index != null && index < size ? index : -1;
+    }
+
+    /**
+     * Append-only vertex storage shared by a mapping and the mappings extended from it.
+     * Readers of older mappings may look up indices while a newer one appends, so the
+     * index map is concurrent; the vertex array only grows by doubling into a new array.
+     */
+    private static final class Storage<V> {
+        private final Map<Object, Integer> indices;
+        private Object[] vertices;
+        private int size;
+
+        private Storage(int capacity) {
+            this.indices = new ConcurrentHashMap<>(Math.max(16, capacity * 4 / 3 + 1));
+            this.vertices = new Object[Math.max(1, capacity)];
+        }
+
+        private int append(Collection<V> newVertices) {
+            for (V vertex : newVertices) {
+                if (indices.putIfAbsent(Objects.requireNonNull(vertex, "vertex"), size) == null) {
+                    if (size == vertices.length) {
+                        vertices = Arrays.copyOf(vertices, vertices.length * 2);
+                    }
+                    vertices[size++] = vertex;
+                }
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Read-only map view of the first {@code size} indices.
+     */
+    private final class IndexView extends AbstractMap<V, Integer> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public Integer get(Object key) {
+            int index = indexOf(key);
+            return index < 0 ? null : index;
+        }
+
+        @Override
+        public Set<Entry<V, Integer>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public Iterator<Entry<V, Integer>> iterator() {
+                    return new Iterator<>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < size;
+                        }
+
+                        @Override
+                        public Entry<V, Integer> next() {
+                            if (next >= size) {
+                                throw new NoSuchElementException();
+                            }
+                            int index = next++;
+                            return new SimpleImmutableEntry<>(getVertex(index), index);
+                        }
+                    };
+                }
+            };
+        }
     }
 }
@@ -0,0 +1,76 @@
+package GraphGenerator;
+
+import Core.PrimitiveCollections.IntArrayList;
+import Core.Seeds;
+
+import java.util.SplittableRandom;
+
+/**
+ * Barabási–Albert preferential-attachment generator.
+ *
+ * <p>Vertex {@code v} attaches {@code edgesPerVertex} edges to earlier endpoints
+ * chosen proportionally to their degree. The model follows the edge-array
+ * formulation of Batagelj and Brandes: position {@code 2e} of the virtual
+ * endpoint array holds the source of edge {@code e}, position {@code 2e + 1}
+ * copies a uniformly chosen earlier position. Drawing that choice from a hash of
+ * the position instead of a sequential random stream (Sanders and Schulz) lets
+ * every edge be resolved independently, so chunks can be generated in parallel
+ * without storing the endpoint array.</p>
+ */
+public class BarabasiAlbertGenerator extends ChunkedGraphGenerator {
+    private final int numOfVertices;
+    private final int edgesPerVertex;
+
+    /**
+     * Creates a Barabási–Albert generator.
+     *
+     * @param numOfVertices number of vertices
+     * @param edgesPerVertex number of edges each new vertex attaches
+     * @param seed seed for controlling randomness and ensuring reproducible generation
+     * @throws IllegalArgumentException if either count is not positive
+     */
+    public BarabasiAlbertGenerator(int numOfVertices, int edgesPerVertex, long seed) {
+        super(seed);
+        if (numOfVertices < 1) {
+            throw new IllegalArgumentException("numOfVertices must be positive");
+        }
+        if (edgesPerVertex < 1) {
+            throw new IllegalArgumentException("edgesPerVertex must be positive");
+        }
+        this.numOfVertices = numOfVertices;
+        this.edgesPerVertex = edgesPerVertex;
+    }
+
+    @Override
+    public int vertexCount() {
+        return numOfVertices;
+    }
+
+    @Override
+    public long expectedEdgeCount() {
+        return (long) numOfVertices * edgesPerVertex;
+    }
+
+    @Override
+    protected long chunkCount() {
+        return (expectedEdgeCount() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    @Override
+    protected void generateChunk(long chunk, SplittableRandom random, IntArrayList sources, IntArrayList destinations) {
+        long first = chunk * CHUNK_SIZE;
+        long last = Math.min(expectedEdgeCount(), first + CHUNK_SIZE);
+        for (long edge = first; edge < last; edge++) {
+            sources.add((int) (edge / edgesPerVertex));
+            destinations.add(resolveTarget(edge));
+        }
+    }
+
+    private int resolveTarget(long edge) {
+        long position = 2 * edge + 1;
+        while ((position & 1) == 1) {
+            position = Long.remainderUnsigned(Seeds.mix(seed, position), position);
+        }
+        return (int) (position / 2 / edgesPerVertex);
+    }
+}
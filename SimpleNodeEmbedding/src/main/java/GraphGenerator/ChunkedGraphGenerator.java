@@ -0,0 +1,74 @@
+package GraphGenerator;
+
+import Core.PrimitiveCollections.IntArrayList;
+import Core.Seeds;
+import GraphGenerator.GeneratorStrategy.EdgeSink;
+import GraphGenerator.GeneratorStrategy.GraphGenerator;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+/**
+ * Base class for generators whose edges can be produced in independent chunks.
+ *
+ * <p>Chunks are generated in parallel, each from its own random stream derived
+ * from the generator seed and the chunk index, and are handed to the sink in
+ * chunk order. Only a bounded wave of chunks is kept in memory at a time, so
+ * the generated graph is never materialized inside the generator.</p>
+ */
+public abstract class ChunkedGraphGenerator implements GraphGenerator {
+    /**
+     * Target number of edges generated per chunk.
+     */
+    protected static final int CHUNK_SIZE = 1 << 16;
+
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    protected final long seed;
+
+    /**
+     * @param seed seed for controlling randomness and ensuring reproducible generation
+     */
+    protected ChunkedGraphGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the number of chunks the generation is split into.
+     *
+     * @return the chunk count
+     */
+    protected abstract long chunkCount();
+
+    /**
+     * Generates the edges of a single chunk.
+     *
+     * @param chunk the chunk index in [0, chunkCount)
+     * @param random random stream reserved for this chunk
+     * @param sources receives the source index of every generated edge
+     * @param destinations receives the destination index of every generated edge
+     */
+    protected abstract void generateChunk(long chunk, SplittableRandom random, IntArrayList sources, IntArrayList destinations);
+
+    @Override
+    public final void generate(EdgeSink sink) {
+        Objects.requireNonNull(sink, "sink");
+        long chunks = chunkCount();
+        long wave = (long) Runtime.getRuntime().availableProcessors() * CHUNKS_PER_THREAD;
+        for (long waveStart = 0; waveStart < chunks; waveStart += wave) {
+            IntArrayList[][] generated = LongStream.range(waveStart, Math.min(chunks, waveStart + wave))
+                    .parallel()
+                    .mapToObj(chunk -> {
+                        IntArrayList sources = new IntArrayList(CHUNK_SIZE);
+                        IntArrayList destinations = new IntArrayList(CHUNK_SIZE);
+                        generateChunk(chunk, new SplittableRandom(Seeds.mix(seed, chunk)), sources, destinations);
+                        return new IntArrayList[] {sources, destinations};
+                    })
+                    .toArray(IntArrayList[][]::new);
+            for (IntArrayList[] chunk : generated) {
+                sink.accept(chunk[0].elements(), chunk[1].elements(), chunk[0].size());
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package GraphGenerator;
+
+import Core.PrimitiveCollections.IntArrayList;
+
+import java.util.SplittableRandom;
+
+/**
+ * Directed Erdős–Rényi G(n, p) generator without self-loops.
+ *
+ * <p>Each of the {@code n (n - 1)} possible edges is present independently with
+ * probability p. Rows are split into chunks of roughly {@link #CHUNK_SIZE}
+ * expected edges and, within a row, absent edges are skipped with geometric
+ * jumps (Batagelj–Brandes), so the cost is proportional to the number of
+ * generated edges rather than to {@code n^2}.</p>
+ */
+public class ErdosRenyiGenerator extends ChunkedGraphGenerator {
+    private final int numOfVertices;
+    private final double probability;
+    private final int rowsPerChunk;
+
+    /**
+     * Creates a G(n, p) generator.
+     *
+     * @param numOfVertices number of vertices n
+     * @param probability edge probability p
+     * @param seed seed for controlling randomness and ensuring reproducible generation
+     * @throws IllegalArgumentException if n is not positive or p is outside [0, 1]
+     */
+    public ErdosRenyiGenerator(int numOfVertices, double probability, long seed) {
+        super(seed);
+        if (numOfVertices < 1) {
+            throw new IllegalArgumentException("numOfVertices must be positive");
+        }
+        if (probability < 0 || probability > 1) {
+            throw new IllegalArgumentException("probability must be in [0, 1]");
+        }
+        this.numOfVertices = numOfVertices;
+        this.probability = probability;
+        double expectedEdgesPerRow = Math.max(1.0, probability * (numOfVertices - 1));
+        this.rowsPerChunk = (int) Math.max(1, Math.min(numOfVertices, CHUNK_SIZE / expectedEdgesPerRow));
+    }
+
+    @Override
+    public int vertexCount() {
+        return numOfVertices;
+    }
+
+    @Override
+    public long expectedEdgeCount() {
+        return Math.round(probability * numOfVertices * (numOfVertices - 1.0));
+    }
+
+    @Override
+    protected long chunkCount() {
+        return (numOfVertices + (long) rowsPerChunk - 1) / rowsPerChunk;
+    }
+
+    @Override
+    protected void generateChunk(long chunk, SplittableRandom random, IntArrayList sources, IntArrayList destinations) {
+        if (probability == 0) {
+            return;
+        }
+        int firstRow = (int) (chunk * rowsPerChunk);
+        int lastRow = (int) Math.min(numOfVertices, firstRow + (long) rowsPerChunk);
+        int candidates = numOfVertices - 1;
+        double logOfMiss = Math.log1p(-probability);
+        for (int source = firstRow; source < lastRow; source++) {
+            long position = -1;
+            while (true) {
+                if (probability == 1) {
+                    position++;
+                } else {
+                    position += 1 + (long) Math.floor(Math.log1p(-random.nextDouble()) / logOfMiss);
+                }
+                if (position >= candidates) {
+                    break;
+                }
+                int destination = (int) position;
+                sources.add(source);
+                destinations.add(destination >= source ? destination + 1 : destination);
+            }
+        }
+    }
+}
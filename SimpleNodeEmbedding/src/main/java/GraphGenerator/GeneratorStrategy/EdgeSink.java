@@ -0,0 +1,29 @@
+package GraphGenerator.GeneratorStrategy;
+
+import java.io.IOException;
+
+/**
+ * Consumer of generated edges, delivered in primitive batches so that no
+ * intermediate {@code Edge} objects are created by the generators.
+ *
+ * <p>Generators call {@link #accept} from a single thread at a time and in a
+ * deterministic order, so implementations do not need to be thread-safe.</p>
+ */
+public interface EdgeSink extends AutoCloseable {
+    /**
+     * Consumes a batch of unit-weight edges.
+     *
+     * @param sources the source index of every edge
+     * @param destinations the destination index of every edge
+     * @param length number of valid entries in both arrays
+     */
+    void accept(int[] sources, int[] destinations, int length);
+
+    /**
+     * Flushes and releases any resources held by the sink.
+     *
+     * @throws IOException if flushing fails
+     */
+    @Override
+    default void close() throws IOException { }
+}
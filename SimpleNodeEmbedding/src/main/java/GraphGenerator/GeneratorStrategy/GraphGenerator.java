@@ -0,0 +1,30 @@
+package GraphGenerator.GeneratorStrategy;
+
+/**
+ * Interface for synthetic graph generators that stream their edges into an {@link EdgeSink}.
+ *
+ * <p>Implementations are seeded and produce the same edge sequence for the same
+ * parameters regardless of how many threads take part in the generation.</p>
+ */
+public interface GraphGenerator {
+    /**
+     * Returns the number of vertices of the generated graph; vertex indices lie in [0, vertexCount).
+     *
+     * @return the vertex count
+     */
+    int vertexCount();
+
+    /**
+     * Returns the expected number of generated edges.
+     *
+     * @return the exact edge count for fixed-size models, or its expectation for random-size ones
+     */
+    long expectedEdgeCount();
+
+    /**
+     * Generates the graph and streams every edge into the given sink.
+     *
+     * @param sink the consumer of the generated edges
+     */
+    void generate(EdgeSink sink);
+}
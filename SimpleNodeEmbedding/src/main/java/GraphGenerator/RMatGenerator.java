@@ -0,0 +1,101 @@
+package GraphGenerator;
+
+import Core.PrimitiveCollections.IntArrayList;
+
+import java.util.SplittableRandom;
+
+/**
+ * R-MAT (recursive matrix) generator, the stochastic Kronecker model used by Graph500.
+ *
+ * <p>Every edge is placed independently by descending {@code scale} levels of the
+ * adjacency matrix, choosing one of the four quadrants with probabilities
+ * (a, b, c, d). The result is a directed graph with a power-law degree
+ * distribution over {@code 2^scale} vertices. Self-loops and duplicate edges
+ * are kept, as in the reference model.</p>
+ */
+public class RMatGenerator extends ChunkedGraphGenerator {
+    private final int scale;
+    private final long numOfEdges;
+    private final double a;
+    private final double ab;
+    private final double abc;
+
+    /**
+     * Creates an R-MAT generator with the Graph500 quadrant probabilities (0.57, 0.19, 0.19, 0.05).
+     *
+     * @param scale base-2 logarithm of the vertex count
+     * @param numOfEdges number of edges to generate
+     * @param seed seed for controlling randomness and ensuring reproducible generation
+     */
+    public RMatGenerator(int scale, long numOfEdges, long seed) {
+        this(scale, numOfEdges, 0.57, 0.19, 0.19, seed);
+    }
+
+    /**
+     * Creates an R-MAT generator with explicit quadrant probabilities; d is {@code 1 - a - b - c}.
+     *
+     * @param scale base-2 logarithm of the vertex count
+     * @param numOfEdges number of edges to generate
+     * @param a probability of the top-left quadrant
+     * @param b probability of the top-right quadrant
+     * @param c probability of the bottom-left quadrant
+     * @param seed seed for controlling randomness and ensuring reproducible generation
+     * @throws IllegalArgumentException if the scale, edge count or probabilities are invalid
+     */
+    public RMatGenerator(int scale, long numOfEdges, double a, double b, double c, long seed) {
+        super(seed);
+        if (scale < 1 || scale > 30) {
+            throw new IllegalArgumentException("scale must be in [1, 30]");
+        }
+        if (numOfEdges < 0) {
+            throw new IllegalArgumentException("numOfEdges must be non-negative");
+        }
+        if (a < 0 || b < 0 || c < 0 || a + b + c > 1.0) {
+            throw new IllegalArgumentException("quadrant probabilities must be non-negative and sum to at most 1");
+        }
+        this.scale = scale;
+        this.numOfEdges = numOfEdges;
+        this.a = a;
+        this.ab = a + b;
+        this.abc = a + b + c;
+    }
+
+    @Override
+    public int vertexCount() {
+        return 1 << scale;
+    }
+
+    @Override
+    public long expectedEdgeCount() {
+        return numOfEdges;
+    }
+
+    @Override
+    protected long chunkCount() {
+        return (numOfEdges + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    @Override
+    protected void generateChunk(long chunk, SplittableRandom random, IntArrayList sources, IntArrayList destinations) {
+        long edges = Math.min(CHUNK_SIZE, numOfEdges - chunk * CHUNK_SIZE);
+        for (long e = 0; e < edges; e++) {
+            int source = 0;
+            int destination = 0;
+            for (int level = 0; level < scale; level++) {
+                double r = random.nextDouble();
+                source <<= 1;
+                destination <<= 1;
+                if (r >= abc) {
+                    source |= 1;
+                    destination |= 1;
+                } else if (r >= ab) {
+                    source |= 1;
+                } else if (r >= a) {
+                    destination |= 1;
+                }
+            }
+            sources.add(source);
+            destinations.add(destination);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package GraphGenerator.Sink;
+
+import Core.PrimitiveCollections.IntArrayList;
+import GraphGenerator.GeneratorStrategy.EdgeSink;
+import representation.CompressedSparseRow.ImmutableCompressedSparseRow;
+
+/**
+ * Edge sink that collects generated edges in primitive arrays and
+ * builds an {@link ImmutableCompressedSparseRow} from them.
+ */
+public class CompressedSparseRowSink implements EdgeSink {
+    private final int vertexCount;
+    private final IntArrayList sources;
+    private final IntArrayList destinations;
+
+    /**
+     * @param vertexCount number of vertices of the generated graph
+     * @param expectedEdgeCount capacity hint for the edge buffers
+     */
+    public CompressedSparseRowSink(int vertexCount, long expectedEdgeCount) {
+        if (vertexCount < 0) {
+            throw new IllegalArgumentException("vertexCount must be non-negative");
+        }
+        this.vertexCount = vertexCount;
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, expectedEdgeCount));
+        this.sources = new IntArrayList(capacity);
+        this.destinations = new IntArrayList(capacity);
+    }
+
+    @Override
+    public void accept(int[] sources, int[] destinations, int length) {
+        this.sources.addAll(sources, length);
+        this.destinations.addAll(destinations, length);
+    }
+
+    /**
+     * Builds the CSR graph from all edges received so far.
+     *
+     * @return the CSR representation with unit weights
+     */
+    public ImmutableCompressedSparseRow build() {
+        return ImmutableCompressedSparseRow.fromEdgeArrays(vertexCount,
+                sources.elements(),
+                destinations.elements(),
+                null,
+                sources.size());
+    }
+}
@@ -0,0 +1,76 @@
+package GraphGenerator.Sink;
+
+import GraphGenerator.GeneratorStrategy.EdgeSink;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Edge sink that streams edges to a text file in the format of the bundled
+ * {@code Graphs/*.txt} inputs: a {@code |V|--> n | |E|--> m} header line
+ * followed by one {@code source destination weight} line per edge.
+ *
+ * <p>The edge count is only known once generation ends, so the header is
+ * written with padding first and rewritten in place when the sink is closed.</p>
+ */
+public class EdgeListFileSink implements EdgeSink {
+    private static final int HEADER_WIDTH = 64;
+
+    private final Path file;
+    private final int vertexCount;
+    private final BufferedWriter writer;
+    private long edgeCount;
+
+    /**
+     * Creates or truncates the output file and writes a placeholder header.
+     *
+     * @param file the output file
+     * @param vertexCount number of vertices of the generated graph
+     * @throws IOException if the file cannot be opened
+     */
+    public EdgeListFileSink(Path file, int vertexCount) throws IOException {
+        this.file = Objects.requireNonNull(file, "file");
+        this.vertexCount = vertexCount;
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII);
+        this.writer.write(header());
+    }
+
+    @Override
+    public void accept(int[] sources, int[] destinations, int length) {
+        try {
+            for (int e = 0; e < length; e++) {
+                writer.write(Integer.toString(sources[e]));
+                writer.write(' ');
+                writer.write(Integer.toString(destinations[e]));
+                writer.write(" 1.0\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        edgeCount += length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(header().getBytes(StandardCharsets.US_ASCII)), 0);
+        }
+    }
+
+    private String header() {
+        StringBuilder header = new StringBuilder("|V|--> " + vertexCount + " | |E|--> " + edgeCount);
+        while (header.length() < HEADER_WIDTH - 1) {
+            header.append(' ');
+        }
+        return header.append('\n').toString();
+    }
+}
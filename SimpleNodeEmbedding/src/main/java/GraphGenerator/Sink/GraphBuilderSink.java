@@ -0,0 +1,31 @@
+package GraphGenerator.Sink;
+
+import Core.GraphBuilder;
+import GraphGenerator.GeneratorStrategy.EdgeSink;
+
+import java.util.Objects;
+
+/**
+ * Edge sink that adds every generated edge to a {@link GraphBuilder} with unit weight.
+ *
+ * <p>Convenient for small and medium graphs that go through the regular
+ * {@code GraphBuilder -> ImmutableGraphData} path; for very large graphs prefer
+ * {@link CompressedSparseRowSink}, which never creates per-edge objects.</p>
+ */
+public class GraphBuilderSink implements EdgeSink {
+    private final GraphBuilder<Integer> graphBuilder;
+
+    /**
+     * @param graphBuilder the builder receiving the edges
+     */
+    public GraphBuilderSink(GraphBuilder<Integer> graphBuilder) {
+        this.graphBuilder = Objects.requireNonNull(graphBuilder, "graphBuilder");
+    }
+
+    @Override
+    public void accept(int[] sources, int[] destinations, int length) {
+        for (int e = 0; e < length; e++) {
+            graphBuilder.addConnection(sources[e], destinations[e], 1.0f);
+        }
+    }
+}
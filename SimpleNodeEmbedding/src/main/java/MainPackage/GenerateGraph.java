@@ -0,0 +1,42 @@
+package MainPackage;
+
+import GraphGenerator.BarabasiAlbertGenerator;
+import GraphGenerator.ErdosRenyiGenerator;
+import GraphGenerator.GeneratorStrategy.GraphGenerator;
+import GraphGenerator.RMatGenerator;
+import GraphGenerator.Sink.EdgeListFileSink;
+
+import java.nio.file.Paths;
+
+/**
+ * Writes a synthetic graph in the {@code Graphs/*.txt} edge-list format for scale runs.
+ *
+ * <pre>
+ * GenerateGraph rmat &lt;scale&gt; &lt;edges&gt; &lt;seed&gt; &lt;output&gt;
+ * GenerateGraph ba   &lt;vertices&gt; &lt;edgesPerVertex&gt; &lt;seed&gt; &lt;output&gt;
+ * GenerateGraph er   &lt;vertices&gt; &lt;probability&gt; &lt;seed&gt; &lt;output&gt;
+ * </pre>
+ */
+public class GenerateGraph {
+    public static void main(String[] args) throws Exception {
+        if (args.length != 5) {
+            throw new IllegalArgumentException("usage: GenerateGraph <rmat|ba|er> <size> <density> <seed> <output>");
+        }
+        var seed = Long.parseLong(args[3]);
+        GraphGenerator generator = switch (args[0]) {
+            case "rmat" -> new RMatGenerator(Integer.parseInt(args[1]), Long.parseLong(args[2]), seed);
+            case "ba" -> new BarabasiAlbertGenerator(Integer.parseInt(args[1]), Integer.parseInt(args[2]), seed);
+            case "er" -> new ErdosRenyiGenerator(Integer.parseInt(args[1]), Double.parseDouble(args[2]), seed);
+            default -> throw new IllegalArgumentException("Unknown generator " + args[0]);
+        };
+
+        var start = System.nanoTime();
+        try (var sink = new EdgeListFileSink(Paths.get(args[4]), generator.vertexCount())) {
+            generator.generate(sink);
+        }
+        System.out.printf("Generated %s vertices, ~%s edges in %.2f s\n",
+                generator.vertexCount(),
+                generator.expectedEdgeCount(),
+                (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -1,35 +1,39 @@
 package MainPackage;
 
-import Core.GraphBuilder;
+import Core.EdgeListReader;
 import Core.GraphType;
 import Core.VertexIndexMapping;
+import RandomWalksEmbedding.EdgeSampling.LineOrder;
+import RandomWalksEmbedding.EdgeSampling.LineSettings;
+import RandomWalksEmbedding.EdgeSampling.LineTrainer;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingAllocator;
+import RandomWalksEmbedding.Embedding.Quantization.Float16EmbeddingTable;
+import RandomWalksEmbedding.Embedding.Quantization.Int8EmbeddingTable;
+import RandomWalksEmbedding.Embedding.Quantization.QuantizationEvaluator;
+import RandomWalksEmbedding.LearningModel.SkipGram;
+import RandomWalksEmbedding.LearningModel.TrainingObjective;
+import RandomWalksEmbedding.Metrics.LoggingTrainingListener;
+import RandomWalksEmbedding.Metrics.Stage;
+import RandomWalksEmbedding.Metrics.TrainingMetrics;
+import RandomWalksEmbedding.MiniBatch.MiniBatchSettings;
+import RandomWalksEmbedding.MiniBatch.MiniBatchTrainer;
+import RandomWalksEmbedding.Pipeline.PipelineSettings;
+import RandomWalksEmbedding.Pipeline.PipelinedTrainer;
 import RandomWalksEmbedding.SampleDataset.PositiveAndNegativeSamples;
+import RandomWalksEmbedding.Serving.SnapshotRegistry;
 import RandomWalksEmbedding.WalkModel.DeepWalk;
+import representation.CompressedSparseRow.ImmutableCompressedSparseRow;
 
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.List;
 
 public class Main {
     public static void main(String[] args) throws Exception {
+        var flags = List.of(args);
+        var allocator = flags.contains("--off-heap") ? EmbeddingAllocator.offHeap() : EmbeddingAllocator.heap();
         var graphDataFile = Paths.get(System.getProperty("user.dir"), "BioGraphs", "bio-CE-GN.txt");
-        var graphReader = Files.newBufferedReader(graphDataFile);
-
-        var graphBuilder = new GraphBuilder<Integer>(GraphType.Directed);
-        var headerLineId = 1;
-
-        graphReader.lines().skip(headerLineId).forEach(line -> {
-            String[] currentLine = line.trim().split(" ");
-            var source = Integer.parseInt(currentLine[0]);
-            var destination = Integer.parseInt(currentLine[1]);
-            var weight = currentLine.length >= 3 ? Float.parseFloat(currentLine[2]) : 1.0f;
-            graphBuilder.addConnection(source, destination, weight);
-        });
-        graphReader.close();
-
-        var builder = graphBuilder
-                .ifNotEmpty()
-                .build();
+        var builder = EdgeListReader.read(graphDataFile, GraphType.Directed);
 
         var numOfEdges = builder.edgeCount();
         var numOfVertices = builder.vertexCount();
@@ -37,24 +41,81 @@ public class Main {
 
         var mapper = new VertexIndexMapping<>(builder);
 
+        var metrics = new TrainingMetrics();
+        metrics.addListener(new LoggingTrainingListener(System.out));
+
         var deepWalk = new DeepWalk<>(builder,
                 mapper,
                 12345L);
 
-        ArrayList<ArrayList<Integer>> RWs = new ArrayList<>();
-        for (var i = 0; i < numOfVertices; i++) {
-            RWs.add(deepWalk.generateWalk(mapper.getVertex(i), 100));
+        if (flags.contains("--pipelined")) {
+            var skipGram = new SkipGram(numOfVertices, new ArrayList<>(), 128, 1, 0.025, 12345L, metrics,
+                    TrainingObjective.NegativeSampling, null, allocator);
+            var pipeline = new PipelinedTrainer<>(deepWalk, skipGram, numOfVertices, 5, 100, 2, 12345L,
+                    PipelineSettings.defaults());
+            var start = System.nanoTime();
+            pipeline.run();
+            System.out.printf("Pipelined run completed in %.3f s\n", (System.nanoTime() - start) / 1e9);
+            return;
+        }
+
+        if (flags.contains("--line")) {
+            var graph = ImmutableCompressedSparseRow.fromGraphData(builder, mapper);
+            var settings = new LineSettings(LineOrder.SecondOrder, 128, 100L * numOfEdges, 5, 0.025,
+                    Runtime.getRuntime().availableProcessors(), 12345L);
+            var start = System.nanoTime();
+            new LineTrainer(graph, settings, metrics, allocator).train();
+            System.out.printf("LINE run completed in %.3f s\n", (System.nanoTime() - start) / 1e9);
+            return;
         }
 
+        ArrayList<ArrayList<Integer>> RWs = metrics.time(Stage.Walk, () -> {
+            ArrayList<ArrayList<Integer>> walks = new ArrayList<>();
+            for (var i = 0; i < numOfVertices; i++) {
+                walks.add(deepWalk.generateWalk(mapper.getVertex(i), 100));
+            }
+            return walks;
+        });
+        metrics.recordWalks(RWs.size());
+
         var positiveNegativeSample = new PositiveAndNegativeSamples<>(mapper,
                 RWs,
                 2,
                 false,
                 12345L);
 
-        var positiveNegativeSampleDatasets = positiveNegativeSample
-                .generatePositiveNegativeSampleDataset();
+        var positiveNegativeSampleDatasets = metrics.time(Stage.Sampling,
+                positiveNegativeSample::generatePositiveNegativeSampleDataset);
+        metrics.recordGeneratedSamples(positiveNegativeSampleDatasets.size());
+
+        var skipGram = new SkipGram(numOfVertices,
+                positiveNegativeSampleDatasets,
+                128,
+                5,
+                0.025,
+                12345L,
+                metrics,
+                TrainingObjective.NegativeSampling,
+                null,
+                allocator);
+        if (flags.contains("--mini-batch")) {
+            var miniBatch = new MiniBatchTrainer(skipGram, positiveNegativeSampleDatasets,
+                    new MiniBatchSettings(128, 5, 5, 12345L));
+            metrics.time(Stage.Training, miniBatch::train);
+        } else {
+            metrics.time(Stage.Training, () -> skipGram.trainModel());
+        }
+
+        var embeddings = skipGram.getEmbeddingMatrix();
+        System.out.println("float16: " + QuantizationEvaluator.evaluate(embeddings,
+                Float16EmbeddingTable.quantize(embeddings), 10, 200, 12345L));
+        System.out.println("int8:    " + QuantizationEvaluator.evaluate(embeddings,
+                Int8EmbeddingTable.quantize(embeddings), 10, 200, 12345L));
 
-        positiveNegativeSampleDatasets.forEach(System.out::println);
+        try (var registry = new SnapshotRegistry<Integer>()) {
+            registry.publish(mapper, embeddings);
+            var query = mapper.getVertex(0);
+            System.out.println("Most similar to " + query + ": " + registry.read(snapshot -> snapshot.mostSimilar(query, 5)));
+        }
     }
 }
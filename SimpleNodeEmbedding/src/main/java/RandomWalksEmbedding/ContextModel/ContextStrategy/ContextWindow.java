@@ -1,7 +1,9 @@
 package RandomWalksEmbedding.ContextModel.ContextStrategy;
 
 import RandomWalksEmbedding.SampleDataset.Pair;
+import RandomWalksEmbedding.SampleDataset.SampleBuffer;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -9,12 +11,35 @@ import java.util.List;
  * using a sliding window mechanism.
  */
 public interface ContextWindow {
+    /**
+     * Appends the positive (target, context) pairs of a walk.
+     *
+     * @param walk array holding the walk as node indices
+     * @param begin index of the first node of the walk
+     * @param end index after the last node of the walk
+     * @param windowSize size of the sliding window
+     * @param samples buffer receiving the pairs, labelled positive
+     */
+    void addPositivePairs(int[] walk, int begin, int end, int windowSize, SampleBuffer samples);
+
     /**
      * Generate positive (target, context) pairs from a walk.
      *
      * @param walk the generated random walk
      * @param windowSize size of the sliding window
      * @return list of (target, context) index pairs
+     * @deprecated boxes every node and pair; use
+     * {@link #addPositivePairs(int[], int, int, int, SampleBuffer)}
      */
-    List<Pair> generatePositivePairs(List<Integer> walk, int windowSize);
+    @Deprecated
+    default List<Pair> generatePositivePairs(List<Integer> walk, int windowSize) {
+        int[] nodes = walk.stream().mapToInt(Integer::intValue).toArray();
+        SampleBuffer samples = new SampleBuffer();
+        addPositivePairs(nodes, 0, nodes.length, windowSize, samples);
+        List<Pair> pairs = new ArrayList<>(samples.size());
+        for (int i = 0; i < samples.size(); i++) {
+            pairs.add(new Pair(samples.targets().get(i), samples.contexts().get(i)));
+        }
+        return pairs;
+    }
 }
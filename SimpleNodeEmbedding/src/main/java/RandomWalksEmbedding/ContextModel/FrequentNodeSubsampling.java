@@ -0,0 +1,100 @@
+package RandomWalksEmbedding.ContextModel;
+
+import Core.PrimitiveCollections.IntArrayList;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Word2vec-style subsampling of frequent nodes in a walk corpus.
+ *
+ * <p>Visit counts are computed once from the walks. An occurrence of node
+ * {@code v} with corpus frequency {@code f(v)} is kept with probability
+ * {@code min(1, (sqrt(f(v) / t) + 1) * t / f(v))}, so hubs that dominate
+ * power-law walks are thinned out while rare nodes are always kept.</p>
+ */
+public class FrequentNodeSubsampling {
+    private final double[] keepProbability;
+
+    /**
+     * Computes keep probabilities from the visit counts of the given walks.
+     *
+     * @param walks the walk corpus, as node indices
+     * @param numOfNodes number of indexed vertices
+     * @param threshold the subsampling threshold t, typically in [1e-5, 1e-3]
+     * @throws IllegalArgumentException if the threshold is not positive
+     */
+    public FrequentNodeSubsampling(List<? extends List<Integer>> walks, int numOfNodes, double threshold) {
+        this(countVisits(walks, numOfNodes), threshold);
+    }
+
+    /**
+     * Computes keep probabilities from precomputed visit counts, for callers that
+     * stream their walks instead of holding the whole corpus.
+     *
+     * @param visitCounts number of occurrences of every node in the walk corpus
+     * @param threshold the subsampling threshold t, typically in [1e-5, 1e-3]
+     * @throws IllegalArgumentException if the threshold is not positive
+     */
+    public FrequentNodeSubsampling(long[] visitCounts, double threshold) {
+        Objects.requireNonNull(visitCounts, "visitCounts cannot be null");
+        if (!(threshold > 0)) {
+            throw new IllegalArgumentException("threshold must be positive");
+        }
+        long totalVisits = 0;
+        for (long count : visitCounts) {
+            totalVisits += count;
+        }
+
+        int numOfNodes = visitCounts.length;
+        this.keepProbability = new double[numOfNodes];
+        for (int node = 0; node < numOfNodes; node++) {
+            if (visitCounts[node] == 0) {
+                keepProbability[node] = 1.0;
+                continue;
+            }
+            double frequency = (double) visitCounts[node] / totalVisits;
+            keepProbability[node] = Math.min(1.0, (Math.sqrt(frequency / threshold) + 1) * threshold / frequency);
+        }
+    }
+
+    private static long[] countVisits(List<? extends List<Integer>> walks, int numOfNodes) {
+        Objects.requireNonNull(walks, "walks cannot be null");
+        long[] visitCounts = new long[numOfNodes];
+        for (List<Integer> walk : walks) {
+            for (int node : walk) {
+                visitCounts[node]++;
+            }
+        }
+        return visitCounts;
+    }
+
+    /**
+     * Returns the probability that an occurrence of the node is kept.
+     *
+     * @param node the node index
+     * @return keep probability in (0, 1]
+     */
+    public double keepProbability(int node) {
+        return keepProbability[node];
+    }
+
+    /**
+     * Appends the occurrences of a walk that survive subsampling.
+     *
+     * @param walk array holding the walk as node indices
+     * @param begin index of the first node of the walk
+     * @param end index after the last node of the walk
+     * @param random source of the drop decisions
+     * @param retained list receiving the retained occurrences, in walk order
+     */
+    public void subsample(int[] walk, int begin, int end, Random random, IntArrayList retained) {
+        for (int i = begin; i < end; i++) {
+            double keep = keepProbability[walk[i]];
+            if (keep >= 1.0 || random.nextDouble() < keep) {
+                retained.add(walk[i]);
+            }
+        }
+    }
+}
@@ -1,10 +1,7 @@
 package RandomWalksEmbedding.ContextModel;
 
 import RandomWalksEmbedding.ContextModel.ContextStrategy.ContextWindow;
-import RandomWalksEmbedding.SampleDataset.Pair;
-
-import java.util.ArrayList;
-import java.util.List;
+import RandomWalksEmbedding.SampleDataset.SampleBuffer;
 
 /**
  * Generates symmetric context pairs from a random walk using a sliding window,
@@ -12,22 +9,22 @@ import java.util.List;
  */
 public class SymmetricSlidingWindow implements ContextWindow {
     /**
-     * Generate positive (target, context) pairs from a walk.
+     * Appends the positive (target, context) pairs of a walk.
      *
-     * @param walk       the generated random walk
+     * @param walk       array holding the walk as node indices
+     * @param begin      index of the first node of the walk
+     * @param end        index after the last node of the walk
      * @param windowSize size of the sliding window
-     * @return list of (target, context) index pairs
+     * @param samples    buffer receiving the pairs, labelled positive
      */
     @Override
-    public List<Pair> generatePositivePairs(List<Integer> walk, int windowSize) {
-        List<Pair> positiveSamples = new ArrayList<>();
-        for (int i = 0; i < walk.size(); i++) {
-            for (int j = Math.max(0, i - windowSize); j <= Math.min(walk.size() - 1, i + windowSize); j++) {
+    public void addPositivePairs(int[] walk, int begin, int end, int windowSize, SampleBuffer samples) {
+        for (int i = begin; i < end; i++) {
+            for (int j = Math.max(begin, i - windowSize); j <= Math.min(end - 1, i + windowSize); j++) {
                 if (i != j) {
-                    positiveSamples.add(new Pair(walk.get(i), walk.get(j)));
+                    samples.add(walk[i], walk[j], SampleBuffer.POSITIVE);
                 }
             }
         }
-        return positiveSamples;
     }
 }
@@ -0,0 +1,93 @@
+package RandomWalksEmbedding.EdgeSampling;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Walker alias table for drawing indices in proportion to non-negative weights in
+ * constant time, built with Vose's linear-time construction.
+ *
+ * <p>Each slot keeps the probability of returning itself and the index returned
+ * otherwise, so a draw costs one uniform index and one uniform double regardless
+ * of the number of weights. The table takes 8 bytes per index.</p>
+ */
+public class AliasTable {
+    private final float[] probability;
+    private final int[] alias;
+
+    /**
+     * Builds the table.
+     *
+     * @param weights the weight of every index
+     * @throws IllegalArgumentException if a weight is negative or not finite, or all weights are zero
+     */
+    public AliasTable(double[] weights) {
+        Objects.requireNonNull(weights, "weights");
+        int n = weights.length;
+        double total = 0;
+        for (double weight : weights) {
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Weights must be finite and non-negative");
+            }
+            total += weight;
+        }
+        if (!(total > 0)) {
+            throw new IllegalArgumentException("AliasTable needs at least one positive weight");
+        }
+        this.probability = new float[n];
+        this.alias = new int[n];
+
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = (float) scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // what remains is 1 up to rounding error
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1;
+        }
+    }
+
+    /**
+     * Draws an index with probability proportional to its weight.
+     *
+     * @param random the random source
+     * @return an index in [0, size)
+     */
+    public int sample(SplittableRandom random) {
+        int slot = random.nextInt(probability.length);
+        return random.nextDouble() < probability[slot] ? slot : alias[slot];
+    }
+
+    /**
+     * Returns the number of indices.
+     *
+     * @return the table size
+     */
+    public int size() {
+        return probability.length;
+    }
+}
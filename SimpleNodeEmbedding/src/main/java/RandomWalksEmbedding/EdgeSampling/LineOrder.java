@@ -0,0 +1,15 @@
+package RandomWalksEmbedding.EdgeSampling;
+
+/**
+ * Proximity preserved by a {@link LineTrainer}.
+ */
+public enum LineOrder {
+    /**
+     * Vertices joined by an edge get similar embeddings; the embedding matrix scores both ends of an edge.
+     */
+    FirstOrder,
+    /**
+     * Vertices with similar neighbours get similar embeddings; destinations are scored by a separate context matrix.
+     */
+    SecondOrder
+}
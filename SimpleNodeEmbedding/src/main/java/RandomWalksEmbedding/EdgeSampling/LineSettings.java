@@ -0,0 +1,38 @@
+package RandomWalksEmbedding.EdgeSampling;
+
+/**
+ * Parameters of a {@link LineTrainer} run.
+ *
+ * @param order the proximity to preserve
+ * @param embeddingDimension number of components per embedding
+ * @param numOfSamples total number of edges sampled, each trained with its negatives
+ * @param negatives number of negative vertices per sampled edge
+ * @param learningRate starting SGD step size, decayed linearly towards {@code learningRate * 1e-4}
+ * @param threads number of training threads
+ * @param seed seed for controlling randomness and ensuring reproducible edge and negative draws
+ */
+public record LineSettings(LineOrder order,
+                           int embeddingDimension,
+                           long numOfSamples,
+                           int negatives,
+                           double learningRate,
+                           int threads,
+                           long seed) {
+    public LineSettings {
+        if (order == null) {
+            throw new IllegalArgumentException("order must not be null");
+        }
+        if (embeddingDimension < 1 || numOfSamples < 1 || threads < 1) {
+            throw new IllegalArgumentException("embeddingDimension, numOfSamples and threads must be positive");
+        }
+        if (negatives < 0) {
+            throw new IllegalArgumentException("negatives must be non-negative");
+        }
+        if (!(learningRate > 0)) {
+            throw new IllegalArgumentException("learningRate must be positive");
+        }
+        if (seed < 1) {
+            throw new IllegalArgumentException("The value seed have to be positive integer");
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package RandomWalksEmbedding.EdgeSampling;
+
+import Core.Seeds;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingAllocator;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingMatrix;
+import RandomWalksEmbedding.Metrics.Stage;
+import RandomWalksEmbedding.Metrics.TrainingMetrics;
+import representation.CompressedSparseRow.CompressedSparseRowModel.CompressedSparseRowData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LINE trainer: learns first- or second-order proximity by sampling edges directly
+ * from an indexed graph, without generating walks or materializing samples.
+ *
+ * <p>Edges are drawn from an alias table over their weights and every drawn edge is
+ * trained with {@code negatives} negative vertices drawn from an alias table over
+ * weighted degree^0.75 (in plus out). Samples are processed in chunks; each chunk has
+ * its own random stream and learning rate derived from its index, so the drawn edges
+ * and negatives do not depend on the thread count. Threads update the matrices
+ * lock-free.</p>
+ */
+public class LineTrainer {
+    private static final int CHUNK_SIZE = 4096;
+    private static final double NEGATIVE_POWER = 0.75;
+    private static final double MIN_LEARNING_RATE_FACTOR = 1e-4;
+    private static final double LOSS_EPSILON = 1e-12;
+
+    private final LineSettings settings;
+    private final TrainingMetrics metrics;
+    private final int numOfVertices;
+    private final int dimension;
+    private final int[] edgeSources;
+    private final int[] edgeDestinations;
+    private final AliasTable edgeTable;
+    private final AliasTable negativeTable;
+    private final EmbeddingMatrix embeddings;
+    private final EmbeddingMatrix contexts;
+
+    /**
+     * Prepares the sampling tables and initializes the embeddings.
+     *
+     * @param graph the indexed graph; edge weights must be non-negative
+     * @param settings the run settings
+     * @param metrics metrics receiving loss, throughput and learning rate
+     * @throws IllegalArgumentException if the graph has no edge of positive weight
+     */
+    public LineTrainer(CompressedSparseRowData graph, LineSettings settings, TrainingMetrics metrics) {
+        this(graph, settings, metrics, EmbeddingAllocator.heap());
+    }
+
+    /**
+     * Prepares the sampling tables and initializes embeddings allocated by the given allocator.
+     *
+     * @param graph the indexed graph; edge weights must be non-negative
+     * @param settings the run settings
+     * @param metrics metrics receiving loss, throughput and learning rate
+     * @param allocator allocator of the embedding and context matrices
+     * @throws IllegalArgumentException if the graph has no edge of positive weight
+     */
+    public LineTrainer(CompressedSparseRowData graph, LineSettings settings, TrainingMetrics metrics, EmbeddingAllocator allocator) {
+        Objects.requireNonNull(graph, "graph");
+        Objects.requireNonNull(allocator, "allocator");
+        this.settings = Objects.requireNonNull(settings, "settings");
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+        this.numOfVertices = graph.vertexCount();
+        this.dimension = settings.embeddingDimension();
+
+        int[] offsets = graph.getOffsets();
+        float[] weights = graph.getWeights();
+        this.edgeDestinations = graph.getDestinations();
+        this.edgeSources = new int[graph.edgeCount()];
+        double[] edgeWeights = new double[edgeSources.length];
+        double[] degrees = new double[numOfVertices];
+        for (int vertex = 0; vertex < numOfVertices; vertex++) {
+            for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+                edgeSources[edge] = vertex;
+                edgeWeights[edge] = weights[edge];
+                degrees[vertex] += weights[edge];
+                degrees[edgeDestinations[edge]] += weights[edge];
+            }
+        }
+        for (int vertex = 0; vertex < numOfVertices; vertex++) {
+            degrees[vertex] = Math.pow(degrees[vertex], NEGATIVE_POWER);
+        }
+        this.edgeTable = new AliasTable(edgeWeights);
+        this.negativeTable = new AliasTable(degrees);
+
+        this.embeddings = allocator.allocate(numOfVertices, dimension);
+        Random random = new Random(settings.seed());
+        for (int vertex = 0; vertex < numOfVertices; vertex++) {
+            for (int column = 0; column < dimension; column++) {
+                embeddings.set(vertex, column, (float) ((random.nextDouble() - 0.5) / dimension));
+            }
+        }
+        this.contexts = settings.order() == LineOrder.SecondOrder
+                ? allocator.allocate(numOfVertices, dimension)
+                : embeddings;
+    }
+
+    /**
+     * Trains on {@code numOfSamples} sampled edges with the configured number of threads.
+     *
+     * @return the vertex embeddings, indexed like the graph
+     * @throws IllegalStateException if a training thread fails or the calling thread is interrupted
+     */
+    public EmbeddingMatrix train() {
+        long numOfChunks = (settings.numOfSamples() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        AtomicLong nextChunk = new AtomicLong();
+        AtomicLong nextProgress = new AtomicLong(metrics.progressInterval());
+        metrics.setLearningRate(settings.learningRate());
+
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(settings.threads(), task -> {
+            Thread thread = new Thread(task, "line-" + threadId.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < settings.threads(); t++) {
+                workers.add(pool.submit(() -> {
+                    float[] gradient = new float[dimension];
+                    for (long chunk = nextChunk.getAndIncrement(); chunk < numOfChunks; chunk = nextChunk.getAndIncrement()) {
+                        trainChunk(chunk, gradient);
+                        reportProgress(nextProgress);
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("LINE training thread failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("LINE training interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        metrics.recordStage(Stage.Training, System.nanoTime() - start);
+        metrics.publishEpoch(0);
+        return embeddings;
+    }
+
+    private void trainChunk(long chunk, float[] gradient) {
+        long first = chunk * CHUNK_SIZE;
+        int count = (int) Math.min(CHUNK_SIZE, settings.numOfSamples() - first);
+        SplittableRandom random = new SplittableRandom(Seeds.forIndex(settings.seed(), chunk));
+        double progress = (double) first / settings.numOfSamples();
+        float learningRate = (float) (settings.learningRate() * Math.max(MIN_LEARNING_RATE_FACTOR, 1 - progress));
+
+        double loss = 0;
+        for (int s = 0; s < count; s++) {
+            int edge = edgeTable.sample(random);
+            int source = edgeSources[edge];
+            Arrays.fill(gradient, 0);
+            for (int d = 0; d <= settings.negatives(); d++) {
+                int target = d == 0 ? edgeDestinations[edge] : negativeTable.sample(random);
+                if (d > 0 && target == source) {
+                    continue;
+                }
+                loss += update(source, target, d == 0, learningRate, gradient);
+            }
+            for (int column = 0; column < dimension; column++) {
+                embeddings.add(source, column, gradient[column]);
+            }
+        }
+        metrics.recordTraining(count, loss);
+        metrics.setLearningRate(learningRate);
+    }
+
+    /**
+     * Updates the context row of the target and accumulates the gradient of the source row.
+     *
+     * @return the log-loss of the pair before the update
+     */
+    private double update(int source, int target, boolean positive, float learningRate, float[] gradient) {
+        float score = 0;
+        for (int column = 0; column < dimension; column++) {
+            score += embeddings.get(source, column) * contexts.get(target, column);
+        }
+        double prediction = 1.0 / (1.0 + Math.exp(-score));
+        float step = (float) (learningRate * ((positive ? 1 : 0) - prediction));
+        for (int column = 0; column < dimension; column++) {
+            gradient[column] += step * contexts.get(target, column);
+            contexts.add(target, column, step * embeddings.get(source, column));
+        }
+        return -Math.log(Math.max(positive ? prediction : 1 - prediction, LOSS_EPSILON));
+    }
+
+    private void reportProgress(AtomicLong nextProgress) {
+        long interval = metrics.progressInterval();
+        if (interval <= 0) {
+            return;
+        }
+        long due = nextProgress.get();
+        if (metrics.trainedSamples() >= due && nextProgress.compareAndSet(due, due + interval)) {
+            metrics.publishProgress(0);
+        }
+    }
+
+    /**
+     * Returns the context matrix of second-order training; for first order it is the embedding matrix itself.
+     *
+     * @return the context embeddings
+     */
+    public EmbeddingMatrix getContextMatrix() {
+        return contexts;
+    }
+}
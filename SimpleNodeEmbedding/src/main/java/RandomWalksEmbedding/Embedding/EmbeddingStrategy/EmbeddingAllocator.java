@@ -0,0 +1,59 @@
+package RandomWalksEmbedding.Embedding.EmbeddingStrategy;
+
+import RandomWalksEmbedding.Embedding.FloatEmbeddingMatrix;
+import RandomWalksEmbedding.Embedding.OffHeapEmbeddingMatrix;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Allocates the zero-initialized matrices a trainer writes into.
+ */
+@FunctionalInterface
+public interface EmbeddingAllocator {
+    /**
+     * Allocates a zero-initialized matrix.
+     *
+     * @param rows number of rows
+     * @param dimension number of components per row
+     * @return the new matrix
+     */
+    EmbeddingMatrix allocate(int rows, int dimension);
+
+    /**
+     * Allocates matrices on the Java heap.
+     *
+     * @return the heap allocator
+     */
+    static EmbeddingAllocator heap() {
+        return FloatEmbeddingMatrix::new;
+    }
+
+    /**
+     * Allocates matrices in direct memory, outside the garbage-collected heap.
+     *
+     * @return the direct-memory allocator
+     */
+    static EmbeddingAllocator offHeap() {
+        return OffHeapEmbeddingMatrix::allocateDirect;
+    }
+
+    /**
+     * Allocates matrices in memory-mapped scratch files, paged by the operating system.
+     *
+     * @param directory directory receiving the scratch files
+     * @return the memory-mapped allocator
+     */
+    static EmbeddingAllocator memoryMapped(Path directory) {
+        Objects.requireNonNull(directory, "directory");
+        return (rows, dimension) -> {
+            try {
+                return OffHeapEmbeddingMatrix.mapScratchFile(directory, rows, dimension);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package RandomWalksEmbedding.Embedding.EmbeddingStrategy;
+
+/**
+ * Writable full-precision embedding table, the storage that trainers update in place.
+ *
+ * <p>Training, similarity search and export all go through this view, so the rows may
+ * live on the Java heap or off-heap. Updates are not synchronized; concurrent trainers
+ * write rows lock-free.</p>
+ */
+public interface EmbeddingMatrix extends EmbeddingTable {
+    /**
+     * Replaces one component.
+     *
+     * @param row the row index
+     * @param column the component index
+     * @param value the new value
+     */
+    void set(int row, int column, float value);
+
+    /**
+     * Adds to one component.
+     *
+     * @param row the row index
+     * @param column the component index
+     * @param delta the value to add
+     */
+    void add(int row, int column, float delta);
+
+    /**
+     * Copies every component, row-major, into the given array. Only matrices that fit in
+     * one array can be copied this way; use {@link #copyRowsTo} for larger ones.
+     *
+     * @param destination array of at least {@code rows() * dimension()} elements
+     */
+    void copyTo(float[] destination);
+
+    /**
+     * Replaces every component, row-major, from the given array. Only matrices that fit in
+     * one array can be filled this way; use {@link #copyRowsFrom} for larger ones.
+     *
+     * @param source array of at least {@code rows() * dimension()} elements
+     */
+    void copyFrom(float[] source);
+
+    /**
+     * Copies consecutive rows, row-major, into the given array.
+     *
+     * @param firstRow index of the first row to copy
+     * @param numOfRows number of rows to copy
+     * @param destination array receiving {@code numOfRows * dimension()} components
+     * @param offset index of the first component in the array
+     */
+    default void copyRowsTo(int firstRow, int numOfRows, float[] destination, int offset) {
+        int dimension = dimension();
+        for (int row = 0; row < numOfRows; row++) {
+            for (int column = 0; column < dimension; column++) {
+                destination[offset + row * dimension + column] = get(firstRow + row, column);
+            }
+        }
+    }
+
+    /**
+     * Replaces consecutive rows, row-major, from the given array.
+     *
+     * @param firstRow index of the first row to replace
+     * @param numOfRows number of rows to replace
+     * @param source array holding {@code numOfRows * dimension()} components
+     * @param offset index of the first component in the array
+     */
+    default void copyRowsFrom(int firstRow, int numOfRows, float[] source, int offset) {
+        int dimension = dimension();
+        for (int row = 0; row < numOfRows; row++) {
+            for (int column = 0; column < dimension; column++) {
+                set(firstRow + row, column, source[offset + row * dimension + column]);
+            }
+        }
+    }
+
+    /**
+     * Replaces every component with those of a matrix of the same shape. The rows are
+     * streamed through a small buffer, so neither matrix has to fit in one array.
+     *
+     * @param source the matrix to copy
+     * @throws IllegalArgumentException if the shapes differ
+     */
+    default void copyFrom(EmbeddingMatrix source) {
+        if (source.rows() != rows() || source.dimension() != dimension()) {
+            throw new IllegalArgumentException("Cannot copy a " + source.rows() + " x " + source.dimension()
+                    + " matrix into a " + rows() + " x " + dimension() + " matrix");
+        }
+        int blockRows = Math.max(1, (1 << 16) / dimension());
+        float[] block = new float[blockRows * dimension()];
+        for (int firstRow = 0; firstRow < rows(); firstRow += blockRows) {
+            int numOfRows = Math.min(blockRows, rows() - firstRow);
+            source.copyRowsTo(firstRow, numOfRows, block, 0);
+            copyRowsFrom(firstRow, numOfRows, block, 0);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package RandomWalksEmbedding.Embedding.EmbeddingStrategy;
+
+/**
+ * Read-only table of embedding rows indexed by vertex index.
+ *
+ * <p>Implementations decide how rows are stored (full precision, float16, int8 ...)
+ * and override the similarity kernels to work directly on that storage.</p>
+ */
+public interface EmbeddingTable {
+    /**
+     * Returns the number of rows.
+     *
+     * @return the row count
+     */
+    int rows();
+
+    /**
+     * Returns the number of components per row.
+     *
+     * @return the embedding dimension
+     */
+    int dimension();
+
+    /**
+     * Returns one component, decoded to float.
+     *
+     * @param row the row index
+     * @param column the component index
+     * @return the component value
+     */
+    float get(int row, int column);
+
+    /**
+     * Returns the approximate number of bytes used to store the table.
+     *
+     * @return the storage size in bytes
+     */
+    long memoryBytes();
+
+    /**
+     * Returns the dot product of two rows.
+     *
+     * @param row1 the first row index
+     * @param row2 the second row index
+     * @return the dot product
+     */
+    default double dot(int row1, int row2) {
+        double sum = 0;
+        for (int column = 0; column < dimension(); column++) {
+            sum += (double) get(row1, column) * get(row2, column);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the Euclidean norm of a row.
+     *
+     * @param row the row index
+     * @return the row norm
+     */
+    default double norm(int row) {
+        return Math.sqrt(dot(row, row));
+    }
+
+    /**
+     * Returns the cosine similarity of two rows, 0 if either row is zero.
+     *
+     * @param row1 the first row index
+     * @param row2 the second row index
+     * @return the cosine similarity
+     */
+    default double cosine(int row1, int row2) {
+        double norms = norm(row1) * norm(row2);
+        return norms == 0 ? 0 : dot(row1, row2) / norms;
+    }
+
+    /**
+     * Returns the k rows most cosine-similar to a query row, excluding the query itself.
+     *
+     * @param query the query row index
+     * @param k number of neighbors
+     * @return neighbor row indices, most similar first
+     */
+    default int[] topK(int query, int k) {
+        int size = Math.min(k, rows() - 1);
+        if (size <= 0) {
+            return new int[0];
+        }
+        int[] best = new int[size];
+        double[] bestScores = new double[size];
+        int filled = 0;
+        double queryNorm = norm(query);
+        for (int row = 0; row < rows(); row++) {
+            if (row == query) {
+                continue;
+            }
+            double norms = queryNorm * norm(row);
+            double score = norms == 0 ? 0 : dot(query, row) / norms;
+            if (filled < size) {
+                filled++;
+            } else if (score <= bestScores[size - 1]) {
+                continue;
+            }
+            int position = filled - 1;
+            while (position > 0 && bestScores[position - 1] < score) {
+                best[position] = best[position - 1];
+                bestScores[position] = bestScores[position - 1];
+                position--;
+            }
+            best[position] = row;
+            bestScores[position] = score;
+        }
+        return best;
+    }
+}
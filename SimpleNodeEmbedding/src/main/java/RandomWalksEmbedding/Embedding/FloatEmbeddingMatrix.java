@@ -0,0 +1,105 @@
+package RandomWalksEmbedding.Embedding;
+
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingMatrix;
+
+/**
+ * Mutable full-precision embedding matrix stored as one flat row-major {@code float[]}.
+ *
+ * <p>Rows are contiguous, so a training update touches one run of cache lines
+ * instead of a separately allocated array per vertex. Updates are not
+ * synchronized; concurrent trainers write rows lock-free.</p>
+ */
+public class FloatEmbeddingMatrix implements EmbeddingMatrix {
+    private final int rows;
+    private final int dimension;
+    private final float[] data;
+
+    /**
+     * Creates a zero-initialized matrix.
+     *
+     * @param rows number of rows
+     * @param dimension number of components per row
+     * @throws IllegalArgumentException if the size is invalid or exceeds the array limit
+     */
+    public FloatEmbeddingMatrix(int rows, int dimension) {
+        if (rows < 0 || dimension < 1) {
+            throw new IllegalArgumentException("rows must be non-negative and dimension positive");
+        }
+        if ((long) rows * dimension > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Matrix of " + rows + " x " + dimension + " does not fit in one array");
+        }
+        this.rows = rows;
+        this.dimension = dimension;
+        this.data = new float[rows * dimension];
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public float get(int row, int column) {
+        return data[row * dimension + column];
+    }
+
+    @Override
+    public void set(int row, int column, float value) {
+        data[row * dimension + column] = value;
+    }
+
+    @Override
+    public void add(int row, int column, float delta) {
+        data[row * dimension + column] += delta;
+    }
+
+    @Override
+    public void copyTo(float[] destination) {
+        System.arraycopy(data, 0, destination, 0, data.length);
+    }
+
+    @Override
+    public void copyFrom(float[] source) {
+        System.arraycopy(source, 0, data, 0, data.length);
+    }
+
+    @Override
+    public void copyFrom(EmbeddingMatrix source) {
+        if (source instanceof FloatEmbeddingMatrix other && other.rows == rows && other.dimension == dimension) {
+            System.arraycopy(other.data, 0, data, 0, data.length);
+        } else {
+            EmbeddingMatrix.super.copyFrom(source);
+        }
+    }
+
+    @Override
+    public void copyRowsTo(int firstRow, int numOfRows, float[] destination, int offset) {
+        System.arraycopy(data, firstRow * dimension, destination, offset, numOfRows * dimension);
+    }
+
+    @Override
+    public void copyRowsFrom(int firstRow, int numOfRows, float[] source, int offset) {
+        System.arraycopy(source, offset, data, firstRow * dimension, numOfRows * dimension);
+    }
+
+    @Override
+    public long memoryBytes() {
+        return (long) data.length * Float.BYTES;
+    }
+
+    @Override
+    public double dot(int row1, int row2) {
+        int offset1 = row1 * dimension;
+        int offset2 = row2 * dimension;
+        float sum = 0;
+        for (int column = 0; column < dimension; column++) {
+            sum += data[offset1 + column] * data[offset2 + column];
+        }
+        return sum;
+    }
+}
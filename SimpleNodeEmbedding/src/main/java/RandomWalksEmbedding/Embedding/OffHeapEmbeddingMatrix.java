@@ -0,0 +1,229 @@
+package RandomWalksEmbedding.Embedding;
+
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingMatrix;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Full-precision embedding matrix stored outside the Java heap, in direct buffers or
+ * memory-mapped scratch files.
+ *
+ * <p>A single buffer is limited to 2 GiB, so rows are split into segments of a
+ * power-of-two number of rows of at most 1 GiB each; a row never spans two segments
+ * and a lookup is one shift, one mask and one absolute buffer access. The heap only
+ * holds the segment headers, so the collector neither copies nor scans the model and
+ * heap usage stays flat as the model grows. Size the JVM with
+ * {@code -XX:MaxDirectMemorySize} for direct storage; mapped storage is paged by the
+ * operating system and can exceed physical memory.</p>
+ *
+ * <p>Direct and mapped memory is released when the matrix becomes unreachable. A
+ * scratch file is unlinked as soon as it is mapped, so it never outlives the process;
+ * where a mapped file cannot be deleted it is removed on exit or by {@link #close()}.</p>
+ */
+public class OffHeapEmbeddingMatrix implements EmbeddingMatrix, AutoCloseable {
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private final int rows;
+    private final int dimension;
+    private final int segmentShift;
+    private final int segmentMask;
+    private final FloatBuffer[] segments;
+    private final Path scratchFile;
+
+    private OffHeapEmbeddingMatrix(int rows, int dimension, FloatBuffer[] segments, int segmentShift, Path scratchFile) {
+        this.rows = rows;
+        this.dimension = dimension;
+        this.segments = segments;
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1 << segmentShift) - 1;
+        this.scratchFile = scratchFile;
+    }
+
+    /**
+     * Allocates a zero-initialized matrix in direct memory.
+     *
+     * @param rows number of rows
+     * @param dimension number of components per row
+     * @return the matrix
+     * @throws IllegalArgumentException if the size is invalid
+     */
+    public static OffHeapEmbeddingMatrix allocateDirect(int rows, int dimension) {
+        int shift = segmentShift(rows, dimension);
+        FloatBuffer[] segments = new FloatBuffer[segmentCount(rows, shift)];
+        for (int segment = 0; segment < segments.length; segment++) {
+            segments[segment] = ByteBuffer.allocateDirect(segmentBytes(rows, dimension, shift, segment))
+                    .order(ByteOrder.nativeOrder())
+                    .asFloatBuffer();
+        }
+        return new OffHeapEmbeddingMatrix(rows, dimension, segments, shift, null);
+    }
+
+    /**
+     * Allocates a zero-initialized matrix in a new memory-mapped scratch file.
+     *
+     * @param directory directory receiving the scratch file
+     * @param rows number of rows
+     * @param dimension number of components per row
+     * @return the matrix
+     * @throws IOException if the file cannot be created or mapped
+     * @throws IllegalArgumentException if the size is invalid
+     */
+    public static OffHeapEmbeddingMatrix mapScratchFile(Path directory, int rows, int dimension) throws IOException {
+        Objects.requireNonNull(directory, "directory");
+        int shift = segmentShift(rows, dimension);
+        FloatBuffer[] segments = new FloatBuffer[segmentCount(rows, shift)];
+        Path file = Files.createTempFile(directory, "embeddings-", ".bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = 0;
+            for (int segment = 0; segment < segments.length; segment++) {
+                int bytes = segmentBytes(rows, dimension, shift, segment);
+                segments[segment] = channel.map(FileChannel.MapMode.READ_WRITE, position, bytes)
+                        .order(ByteOrder.nativeOrder())
+                        .asFloatBuffer();
+                position += bytes;
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        try {
+            // the mappings stay valid; the space is reclaimed once they are unmapped
+            Files.delete(file);
+            return new OffHeapEmbeddingMatrix(rows, dimension, segments, shift, null);
+        } catch (IOException e) {
+            // platforms that cannot delete a mapped file
+            file.toFile().deleteOnExit();
+            return new OffHeapEmbeddingMatrix(rows, dimension, segments, shift, file);
+        }
+    }
+
+    private static int segmentShift(int rows, int dimension) {
+        if (rows < 0 || dimension < 1) {
+            throw new IllegalArgumentException("rows must be non-negative and dimension positive");
+        }
+        long rowBytes = (long) dimension * Float.BYTES;
+        if (rowBytes > MAX_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("A row of dimension " + dimension + " does not fit in one segment");
+        }
+        return 63 - Long.numberOfLeadingZeros(MAX_SEGMENT_BYTES / rowBytes);
+    }
+
+    private static int segmentCount(int rows, int shift) {
+        return (int) (((long) rows + (1L << shift) - 1) >>> shift);
+    }
+
+    private static int segmentBytes(int rows, int dimension, int shift, int segment) {
+        long firstRow = (long) segment << shift;
+        long segmentRows = Math.min(1L << shift, rows - firstRow);
+        return (int) (segmentRows * dimension * Float.BYTES);
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public float get(int row, int column) {
+        return segments[row >>> segmentShift].get((row & segmentMask) * dimension + column);
+    }
+
+    @Override
+    public void set(int row, int column, float value) {
+        segments[row >>> segmentShift].put((row & segmentMask) * dimension + column, value);
+    }
+
+    @Override
+    public void add(int row, int column, float delta) {
+        FloatBuffer segment = segments[row >>> segmentShift];
+        int index = (row & segmentMask) * dimension + column;
+        segment.put(index, segment.get(index) + delta);
+    }
+
+    @Override
+    public double dot(int row1, int row2) {
+        FloatBuffer segment1 = segments[row1 >>> segmentShift];
+        FloatBuffer segment2 = segments[row2 >>> segmentShift];
+        int offset1 = (row1 & segmentMask) * dimension;
+        int offset2 = (row2 & segmentMask) * dimension;
+        float sum = 0;
+        for (int column = 0; column < dimension; column++) {
+            sum += segment1.get(offset1 + column) * segment2.get(offset2 + column);
+        }
+        return sum;
+    }
+
+    @Override
+    public void copyTo(float[] destination) {
+        int offset = 0;
+        for (FloatBuffer segment : segments) {
+            segment.get(0, destination, offset, segment.capacity());
+            offset += segment.capacity();
+        }
+    }
+
+    @Override
+    public void copyFrom(float[] source) {
+        int offset = 0;
+        for (FloatBuffer segment : segments) {
+            segment.put(0, source, offset, segment.capacity());
+            offset += segment.capacity();
+        }
+    }
+
+    @Override
+    public void copyRowsTo(int firstRow, int numOfRows, float[] destination, int offset) {
+        int row = firstRow;
+        int end = firstRow + numOfRows;
+        while (row < end) {
+            // one bulk copy per segment the rows fall into
+            int count = Math.min(end - row, segmentMask + 1 - (row & segmentMask));
+            segments[row >>> segmentShift].get((row & segmentMask) * dimension, destination, offset, count * dimension);
+            offset += count * dimension;
+            row += count;
+        }
+    }
+
+    @Override
+    public void copyRowsFrom(int firstRow, int numOfRows, float[] source, int offset) {
+        int row = firstRow;
+        int end = firstRow + numOfRows;
+        while (row < end) {
+            int count = Math.min(end - row, segmentMask + 1 - (row & segmentMask));
+            segments[row >>> segmentShift].put((row & segmentMask) * dimension, source, offset, count * dimension);
+            offset += count * dimension;
+            row += count;
+        }
+    }
+
+    @Override
+    public long memoryBytes() {
+        return (long) rows * dimension * Float.BYTES;
+    }
+
+    /**
+     * Deletes a scratch file that could not be unlinked when it was mapped; the matrix must
+     * not be used afterwards.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        if (scratchFile != null) {
+            Files.deleteIfExists(scratchFile);
+        }
+    }
+}
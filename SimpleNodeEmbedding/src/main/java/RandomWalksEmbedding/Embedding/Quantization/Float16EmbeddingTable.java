@@ -0,0 +1,124 @@
+package RandomWalksEmbedding.Embedding.Quantization;
+
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingTable;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Read-only embedding table stored as IEEE binary16, half the size of float32.
+ *
+ * <p>Each component keeps about three significant decimal digits, which is
+ * ample for similarity search over trained embeddings. Row norms are cached, so
+ * cosine similarity only decodes the two rows once for their dot product.</p>
+ */
+public class Float16EmbeddingTable implements EmbeddingTable {
+    private static final int FORMAT_MAGIC = 0x4E453136;
+
+    private final int rows;
+    private final int dimension;
+    private final short[] data;
+    private final float[] norms;
+
+    private Float16EmbeddingTable(int rows, int dimension, short[] data) {
+        this.rows = rows;
+        this.dimension = dimension;
+        this.data = data;
+        this.norms = new float[rows];
+        for (int row = 0; row < rows; row++) {
+            norms[row] = (float) Math.sqrt(dot(row, row));
+        }
+    }
+
+    /**
+     * Quantizes a full-precision table.
+     *
+     * @param source the table to quantize
+     * @return the float16 table
+     */
+    public static Float16EmbeddingTable quantize(EmbeddingTable source) {
+        Objects.requireNonNull(source, "source");
+        int rows = source.rows();
+        int dimension = source.dimension();
+        short[] data = new short[Math.multiplyExact(rows, dimension)];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < dimension; column++) {
+                data[row * dimension + column] = Float.floatToFloat16(source.get(row, column));
+            }
+        }
+        return new Float16EmbeddingTable(rows, dimension, data);
+    }
+
+    /**
+     * Reads a table previously written with {@link #write}.
+     *
+     * @param in the input stream
+     * @return the float16 table
+     * @throws IOException if reading fails or the stream is not a float16 table
+     */
+    public static Float16EmbeddingTable read(DataInputStream in) throws IOException {
+        if (in.readInt() != FORMAT_MAGIC) {
+            throw new IOException("Not a float16 embedding table");
+        }
+        int rows = in.readInt();
+        int dimension = in.readInt();
+        short[] data = new short[Math.multiplyExact(rows, dimension)];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = in.readShort();
+        }
+        return new Float16EmbeddingTable(rows, dimension, data);
+    }
+
+    /**
+     * Writes the table in a compact binary form.
+     *
+     * @param out the output stream
+     * @throws IOException if writing fails
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(FORMAT_MAGIC);
+        out.writeInt(rows);
+        out.writeInt(dimension);
+        for (short value : data) {
+            out.writeShort(value);
+        }
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public float get(int row, int column) {
+        return Float.float16ToFloat(data[row * dimension + column]);
+    }
+
+    @Override
+    public long memoryBytes() {
+        return (long) data.length * Short.BYTES + (long) rows * Float.BYTES;
+    }
+
+    @Override
+    public double dot(int row1, int row2) {
+        int offset1 = row1 * dimension;
+        int offset2 = row2 * dimension;
+        float sum = 0;
+        for (int column = 0; column < dimension; column++) {
+            sum += Float.float16ToFloat(data[offset1 + column]) * Float.float16ToFloat(data[offset2 + column]);
+        }
+        return sum;
+    }
+
+    @Override
+    public double norm(int row) {
+        return norms[row];
+    }
+}
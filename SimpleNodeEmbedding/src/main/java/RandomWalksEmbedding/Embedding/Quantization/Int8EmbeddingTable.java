@@ -0,0 +1,140 @@
+package RandomWalksEmbedding.Embedding.Quantization;
+
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingTable;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Read-only embedding table stored as signed 8-bit integers with one float scale per row.
+ *
+ * <p>Component {@code x} of a row with maximum magnitude {@code m} is stored as
+ * {@code round(127 x / m)}, and the row keeps {@code m / 127} as its scale. Dot
+ * products are computed on the integers and scaled once per row pair, and row
+ * norms are cached, so cosine similarity never decodes a row. Storage is
+ * about a quarter of float32.</p>
+ */
+public class Int8EmbeddingTable implements EmbeddingTable {
+    private static final int FORMAT_MAGIC = 0x4E454938;
+
+    private final int rows;
+    private final int dimension;
+    private final byte[] data;
+    private final float[] scales;
+    private final float[] norms;
+
+    private Int8EmbeddingTable(int rows, int dimension, byte[] data, float[] scales) {
+        this.rows = rows;
+        this.dimension = dimension;
+        this.data = data;
+        this.scales = scales;
+        this.norms = new float[rows];
+        for (int row = 0; row < rows; row++) {
+            norms[row] = (float) Math.sqrt(dot(row, row));
+        }
+    }
+
+    /**
+     * Quantizes a full-precision table.
+     *
+     * @param source the table to quantize
+     * @return the int8 table
+     */
+    public static Int8EmbeddingTable quantize(EmbeddingTable source) {
+        Objects.requireNonNull(source, "source");
+        int rows = source.rows();
+        int dimension = source.dimension();
+        byte[] data = new byte[Math.multiplyExact(rows, dimension)];
+        float[] scales = new float[rows];
+        for (int row = 0; row < rows; row++) {
+            float maxMagnitude = 0;
+            for (int column = 0; column < dimension; column++) {
+                maxMagnitude = Math.max(maxMagnitude, Math.abs(source.get(row, column)));
+            }
+            if (maxMagnitude == 0) {
+                continue;
+            }
+            scales[row] = maxMagnitude / 127f;
+            for (int column = 0; column < dimension; column++) {
+                data[row * dimension + column] = (byte) Math.round(source.get(row, column) / scales[row]);
+            }
+        }
+        return new Int8EmbeddingTable(rows, dimension, data, scales);
+    }
+
+    /**
+     * Reads a table previously written with {@link #write}.
+     *
+     * @param in the input stream
+     * @return the int8 table
+     * @throws IOException if reading fails or the stream is not an int8 table
+     */
+    public static Int8EmbeddingTable read(DataInputStream in) throws IOException {
+        if (in.readInt() != FORMAT_MAGIC) {
+            throw new IOException("Not an int8 embedding table");
+        }
+        int rows = in.readInt();
+        int dimension = in.readInt();
+        float[] scales = new float[rows];
+        for (int row = 0; row < rows; row++) {
+            scales[row] = in.readFloat();
+        }
+        byte[] data = new byte[Math.multiplyExact(rows, dimension)];
+        in.readFully(data);
+        return new Int8EmbeddingTable(rows, dimension, data, scales);
+    }
+
+    /**
+     * Writes the table in a compact binary form.
+     *
+     * @param out the output stream
+     * @throws IOException if writing fails
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(FORMAT_MAGIC);
+        out.writeInt(rows);
+        out.writeInt(dimension);
+        for (float scale : scales) {
+            out.writeFloat(scale);
+        }
+        out.write(data);
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public float get(int row, int column) {
+        return data[row * dimension + column] * scales[row];
+    }
+
+    @Override
+    public long memoryBytes() {
+        return data.length + (long) rows * Float.BYTES * 2;
+    }
+
+    @Override
+    public double dot(int row1, int row2) {
+        int offset1 = row1 * dimension;
+        int offset2 = row2 * dimension;
+        int sum = 0;
+        for (int column = 0; column < dimension; column++) {
+            sum += data[offset1 + column] * data[offset2 + column];
+        }
+        return (double) sum * scales[row1] * scales[row2];
+    }
+
+    @Override
+    public double norm(int row) {
+        return norms[row];
+    }
+}
@@ -0,0 +1,77 @@
+package RandomWalksEmbedding.Embedding.Quantization;
+
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingTable;
+
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Measures how closely a quantized table reproduces full-precision similarity results.
+ */
+public final class QuantizationEvaluator {
+    private QuantizationEvaluator() { }
+
+    /**
+     * Compares top-k neighbor recall and cosine error of a quantized table against its reference.
+     *
+     * @param reference the full-precision table
+     * @param quantized the quantized table
+     * @param k number of neighbors per query
+     * @param numOfQueries number of random query rows (and of random pairs for the cosine error)
+     * @param seed seed for controlling randomness and ensuring reproducible evaluation
+     * @return the comparison report
+     * @throws IllegalArgumentException if the tables differ in shape or the counts are not positive
+     */
+    public static QuantizationReport evaluate(EmbeddingTable reference, EmbeddingTable quantized, int k, int numOfQueries, long seed) {
+        Objects.requireNonNull(reference, "reference");
+        Objects.requireNonNull(quantized, "quantized");
+        if (reference.rows() != quantized.rows() || reference.dimension() != quantized.dimension()) {
+            throw new IllegalArgumentException("reference and quantized tables must have the same shape");
+        }
+        if (k < 1 || numOfQueries < 1) {
+            throw new IllegalArgumentException("k and numOfQueries must be positive");
+        }
+        if (reference.rows() < 2) {
+            throw new IllegalArgumentException("at least two rows are needed");
+        }
+
+        Random random = new Random(seed);
+        int[] queries = new int[numOfQueries];
+        int[][] pairs = new int[numOfQueries][2];
+        for (int q = 0; q < numOfQueries; q++) {
+            queries[q] = random.nextInt(reference.rows());
+            pairs[q][0] = random.nextInt(reference.rows());
+            pairs[q][1] = random.nextInt(reference.rows());
+        }
+
+        double recall = IntStream.range(0, numOfQueries).parallel().mapToDouble(q -> {
+            int[] expected = reference.topK(queries[q], k);
+            int[] actual = quantized.topK(queries[q], k);
+            int hits = 0;
+            for (int e : expected) {
+                for (int a : actual) {
+                    if (e == a) {
+                        hits++;
+                        break;
+                    }
+                }
+            }
+            return expected.length == 0 ? 1.0 : (double) hits / expected.length;
+        }).average().orElse(1.0);
+
+        double sumError = 0;
+        double maxError = 0;
+        for (int[] pair : pairs) {
+            double error = Math.abs(reference.cosine(pair[0], pair[1]) - quantized.cosine(pair[0], pair[1]));
+            sumError += error;
+            maxError = Math.max(maxError, error);
+        }
+
+        return new QuantizationReport(recall,
+                sumError / numOfQueries,
+                maxError,
+                reference.memoryBytes(),
+                quantized.memoryBytes());
+    }
+}
@@ -0,0 +1,25 @@
+package RandomWalksEmbedding.Embedding.Quantization;
+
+/**
+ * Accuracy and memory comparison of a quantized table against full precision.
+ *
+ * @param recallAtK mean fraction of the full-precision top-k neighbors also returned by the quantized table
+ * @param meanAbsoluteCosineError mean absolute difference of cosine similarities over random row pairs
+ * @param maxAbsoluteCosineError largest absolute difference of cosine similarities over random row pairs
+ * @param referenceBytes storage size of the full-precision table
+ * @param quantizedBytes storage size of the quantized table
+ */
+public record QuantizationReport(double recallAtK,
+                                 double meanAbsoluteCosineError,
+                                 double maxAbsoluteCosineError,
+                                 long referenceBytes,
+                                 long quantizedBytes) {
+    /**
+     * Returns how many times smaller the quantized table is.
+     *
+     * @return the compression ratio
+     */
+    public double compressionRatio() {
+        return quantizedBytes == 0 ? 0 : (double) referenceBytes / quantizedBytes;
+    }
+}
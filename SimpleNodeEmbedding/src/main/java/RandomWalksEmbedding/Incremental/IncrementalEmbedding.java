@@ -0,0 +1,390 @@
+package RandomWalksEmbedding.Incremental;
+
+import Core.Edge;
+import Core.GraphDelta;
+import Core.GraphType;
+import Core.ImmutableGraphData;
+import Core.PrimitiveCollections.IntArrayList;
+import Core.VertexIndexMapping;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingAllocator;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingMatrix;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingTable;
+import RandomWalksEmbedding.LearningModel.SkipGram;
+import RandomWalksEmbedding.LearningModel.TrainingObjective;
+import RandomWalksEmbedding.Metrics.Stage;
+import RandomWalksEmbedding.Metrics.TrainingMetrics;
+import RandomWalksEmbedding.SampleDataset.PositiveAndNegativeSamples;
+import RandomWalksEmbedding.SampleDataset.Sample;
+import RandomWalksEmbedding.WalkModel.DeepWalk;
+import representation.CompressedSparseRow.MutableCompressedSparseRow;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Keeps node embeddings up to date while the graph evolves, without retraining from scratch.
+ *
+ * <p>Each {@link #update} applies a {@link GraphDelta} to the indexed graph in place,
+ * extends the vertex mapping with new vertices, and collects the vertices within
+ * {@code radius} reverse hops of a changed edge, i.e. those whose walks can reach the
+ * change. Only these vertices are walked, directly over the mutable adjacency lists,
+ * and sampled. Training starts from the previous embeddings; a new vertex starts at the
+ * mean of its already embedded neighbors, so an update costs roughly the share of
+ * affected vertices of a full run.</p>
+ *
+ * <p>The first update copies the given embeddings into a matrix from the allocator, and
+ * later updates train that matrix in place. New vertices take spare rows of the matrix;
+ * only when it is full is it copied into one of twice the capacity, so adding n vertices
+ * one update at a time copies O(n) rows in total. The table returned by {@link #update}
+ * is a view of the first {@link VertexIndexMapping#size()} rows of the live model and
+ * changes with the next update; publish it to a {@code SnapshotRegistry} to serve it
+ * while updating.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class IncrementalEmbedding<V> {
+    private static final int MAX_ROWS = Integer.MAX_VALUE - 8;
+    private static final int COPY_BLOCK_FLOATS = 1 << 16;
+
+    private final GraphType graphType;
+    private final MutableCompressedSparseRow graph;
+    private final IncrementalSettings settings;
+    private final TrainingMetrics metrics;
+    private final EmbeddingAllocator allocator;
+    private VertexIndexMapping<V> mapper;
+    private EmbeddingTable embeddings;
+    // capacity rows; the rows past the mapped vertices are spare
+    private EmbeddingMatrix model;
+    private long numOfUpdates;
+
+    /**
+     * Creates an incremental embedding from a graph snapshot and its trained embeddings.
+     *
+     * @param graphData the graph the embeddings were trained on
+     * @param mapper mapping from vertices to the embedding rows
+     * @param embeddings the trained embeddings
+     * @param settings walk and training parameters of the updates
+     * @param metrics metrics receiving stage times and training progress
+     * @throws IllegalArgumentException if the embeddings do not have one row per vertex
+     */
+    public IncrementalEmbedding(ImmutableGraphData<V> graphData, VertexIndexMapping<V> mapper, EmbeddingTable embeddings, IncrementalSettings settings, TrainingMetrics metrics) {
+        this(graphData, mapper, embeddings, settings, metrics, EmbeddingAllocator.heap());
+    }
+
+    /**
+     * Creates an incremental embedding whose model is stored by the given allocator,
+     * usually the one the embeddings were trained with.
+     *
+     * @param graphData the graph the embeddings were trained on
+     * @param mapper mapping from vertices to the embedding rows
+     * @param embeddings the trained embeddings; they are copied on the first update
+     * @param settings walk and training parameters of the updates
+     * @param metrics metrics receiving stage times and training progress
+     * @param allocator allocator of the updated model
+     * @throws IllegalArgumentException if the embeddings do not have one row per vertex
+     */
+    public IncrementalEmbedding(ImmutableGraphData<V> graphData, VertexIndexMapping<V> mapper, EmbeddingTable embeddings, IncrementalSettings settings, TrainingMetrics metrics, EmbeddingAllocator allocator) {
+        Objects.requireNonNull(graphData, "graphData");
+        this.allocator = Objects.requireNonNull(allocator, "allocator");
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this.embeddings = Objects.requireNonNull(embeddings, "embeddings");
+        this.settings = Objects.requireNonNull(settings, "settings");
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+        if (embeddings.rows() != mapper.size()) {
+            throw new IllegalArgumentException("embeddings must have one row per mapped vertex");
+        }
+        this.graphType = graphData.graphType();
+        this.graph = MutableCompressedSparseRow.fromGraphData(graphData, mapper);
+    }
+
+    /**
+     * Applies a graph change and refines the embeddings around it.
+     *
+     * @param delta the added and removed edges
+     * @return the updated embeddings, one row per vertex of {@link #getMapper()}
+     */
+    public EmbeddingTable update(GraphDelta<V> delta) {
+        Objects.requireNonNull(delta, "delta");
+        long updateSeed = settings.seed() + numOfUpdates++;
+        int previousRows = embeddings.rows();
+
+        IntArrayList changed = applyDelta(delta);
+        if (model == null || embeddings.rows() != mapper.size()) {
+            extend(previousRows, updateSeed);
+        }
+        int[] affected = affectedVertices(changed);
+        if (affected.length == 0) {
+            return embeddings;
+        }
+
+        var deepWalk = new DeepWalk<>(graph, mapper, updateSeed);
+        ArrayList<ArrayList<Integer>> walks = metrics.time(Stage.Walk, () -> {
+            ArrayList<ArrayList<Integer>> generated = new ArrayList<>();
+            for (int vertex : affected) {
+                for (int w = 0; w < settings.walksPerVertex(); w++) {
+                    generated.add(deepWalk.generateWalk(mapper.getVertex(vertex), settings.hops()));
+                }
+            }
+            return generated;
+        });
+        metrics.recordWalks(walks.size());
+
+        List<Sample> samples = metrics.time(Stage.Sampling, () -> new PositiveAndNegativeSamples<>(mapper,
+                walks,
+                settings.windowSize(),
+                true,
+                updateSeed).generatePositiveNegativeSampleDataset());
+        metrics.recordGeneratedSamples(samples.size());
+
+        var skipGram = new SkipGram(samples,
+                settings.numOfEpochs(),
+                settings.learningRate(),
+                updateSeed,
+                metrics,
+                TrainingObjective.NegativeSampling,
+                model,
+                allocator);
+        metrics.time(Stage.Training, () -> skipGram.trainModel());
+        return embeddings;
+    }
+
+    /**
+     * Returns the current vertex mapping, extended with every vertex added so far.
+     *
+     * @return the vertex mapping
+     */
+    public VertexIndexMapping<V> getMapper() {
+        return mapper;
+    }
+
+    /**
+     * Returns the current embeddings.
+     *
+     * @return the embeddings, one row per mapped vertex
+     */
+    public EmbeddingTable getEmbeddings() {
+        return embeddings;
+    }
+
+    /**
+     * Returns the indexed graph after all updates applied so far.
+     *
+     * @return the mutable indexed graph
+     */
+    public MutableCompressedSparseRow getGraph() {
+        return graph;
+    }
+
+    private IntArrayList applyDelta(GraphDelta<V> delta) {
+        List<V> newVertices = new ArrayList<>();
+        for (Edge<V> edge : delta.addedEdges()) {
+            newVertices.add(edge.source());
+            newVertices.add(edge.destination());
+        }
+        mapper = mapper.withVertices(newVertices);
+        graph.ensureVertexCount(mapper.size());
+
+        IntArrayList changed = new IntArrayList();
+        for (Edge<V> edge : delta.removedEdges()) {
+            Integer source = mapper.getVertexToIndex().get(edge.source());
+            Integer destination = mapper.getVertexToIndex().get(edge.destination());
+            if (source == null || destination == null) {
+                continue;
+            }
+            boolean removed = graph.removeEdge(source, destination);
+            if (graphType == GraphType.BiDirectional) {
+                removed |= graph.removeEdge(destination, source);
+            }
+            if (removed) {
+                changed.add(source);
+                changed.add(destination);
+            }
+        }
+        for (Edge<V> edge : delta.addedEdges()) {
+            int source = mapper.indexForVertex(edge.source());
+            int destination = mapper.indexForVertex(edge.destination());
+            graph.addEdge(source, destination, edge.weight());
+            if (graphType == GraphType.BiDirectional) {
+                graph.addEdge(destination, source, edge.weight());
+            }
+            changed.add(source);
+            changed.add(destination);
+        }
+        return changed;
+    }
+
+    private int[] affectedVertices(IntArrayList changed) {
+        boolean[] visited = new boolean[graph.vertexCount()];
+        IntArrayList frontier = new IntArrayList();
+        IntArrayList affected = new IntArrayList();
+        for (int i = 0; i < changed.size(); i++) {
+            int vertex = changed.get(i);
+            if (!visited[vertex]) {
+                visited[vertex] = true;
+                frontier.add(vertex);
+                affected.add(vertex);
+            }
+        }
+        for (int hop = 0; hop < settings.radius() && frontier.size() > 0; hop++) {
+            IntArrayList next = new IntArrayList();
+            for (int i = 0; i < frontier.size(); i++) {
+                IntArrayList predecessors = graph.inNeighbors(frontier.get(i));
+                for (int p = 0; p < predecessors.size(); p++) {
+                    int vertex = predecessors.get(p);
+                    if (!visited[vertex]) {
+                        visited[vertex] = true;
+                        next.add(vertex);
+                        affected.add(vertex);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return affected.toArray();
+    }
+
+    /**
+     * Makes room for the new vertices, copying the previous embeddings into a matrix of
+     * twice the capacity when the current one is full, and initializes every new row from
+     * the mean of its previously embedded neighbors, falling back to the small random
+     * initialization of {@link SkipGram} for vertices without such neighbors.
+     */
+    private void extend(int previousRows, long seed) {
+        int dimension = embeddings.dimension();
+        if (model == null || model.rows() < mapper.size()) {
+            int capacity = model == null ? mapper.size() : (int) Math.min(MAX_ROWS, Math.max(mapper.size(), 2L * model.rows()));
+            EmbeddingMatrix grown = allocator.allocate(capacity, dimension);
+            copyRows(embeddings, grown, previousRows);
+            model = grown;
+        }
+        Random random = new Random(seed);
+        for (int row = previousRows; row < mapper.size(); row++) {
+            Set<Integer> neighbors = new LinkedHashSet<>();
+            IntArrayList outgoing = graph.outNeighbors(row);
+            IntArrayList incoming = graph.inNeighbors(row);
+            for (int i = 0; i < outgoing.size(); i++) {
+                neighbors.add(outgoing.get(i));
+            }
+            for (int i = 0; i < incoming.size(); i++) {
+                neighbors.add(incoming.get(i));
+            }
+            neighbors.removeIf(neighbor -> neighbor >= previousRows);
+            for (int column = 0; column < dimension; column++) {
+                if (neighbors.isEmpty()) {
+                    model.set(row, column, (float) (random.nextDouble() * 0.01));
+                    continue;
+                }
+                float sum = 0;
+                for (int neighbor : neighbors) {
+                    sum += model.get(neighbor, column);
+                }
+                model.set(row, column, sum / neighbors.size());
+            }
+        }
+        embeddings = new ModelRows(model, mapper.size());
+    }
+
+    private static void copyRows(EmbeddingTable source, EmbeddingMatrix target, int rows) {
+        int dimension = source.dimension();
+        if (source instanceof EmbeddingMatrix matrix) {
+            int blockRows = Math.max(1, COPY_BLOCK_FLOATS / dimension);
+            float[] block = new float[blockRows * dimension];
+            for (int row = 0; row < rows; row += blockRows) {
+                int numOfRows = Math.min(blockRows, rows - row);
+                matrix.copyRowsTo(row, numOfRows, block, 0);
+                target.copyRowsFrom(row, numOfRows, block, 0);
+            }
+            return;
+        }
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < dimension; column++) {
+                target.set(row, column, source.get(row, column));
+            }
+        }
+    }
+
+    /**
+     * The first {@code rows} rows of the capacity matrix, i.e. one row per mapped vertex.
+     */
+    private static final class ModelRows implements EmbeddingMatrix {
+        private final EmbeddingMatrix model;
+        private final int rows;
+
+        private ModelRows(EmbeddingMatrix model, int rows) {
+            this.model = model;
+            this.rows = rows;
+        }
+
+        @Override
+        public int rows() {
+            return rows;
+        }
+
+        @Override
+        public int dimension() {
+            return model.dimension();
+        }
+
+        @Override
+        public float get(int row, int column) {
+            Objects.checkIndex(row, rows);
+            return model.get(row, column);
+        }
+
+        @Override
+        public void set(int row, int column, float value) {
+            Objects.checkIndex(row, rows);
+            model.set(row, column, value);
+        }
+
+        @Override
+        public void add(int row, int column, float delta) {
+            Objects.checkIndex(row, rows);
+            model.add(row, column, delta);
+        }
+
+        @Override
+        public double dot(int row1, int row2) {
+            Objects.checkIndex(row1, rows);
+            Objects.checkIndex(row2, rows);
+            return model.dot(row1, row2);
+        }
+
+        @Override
+        public double norm(int row) {
+            Objects.checkIndex(row, rows);
+            return model.norm(row);
+        }
+
+        @Override
+        public long memoryBytes() {
+            return model.memoryBytes();
+        }
+
+        @Override
+        public void copyTo(float[] destination) {
+            copyRowsTo(0, rows, destination, 0);
+        }
+
+        @Override
+        public void copyFrom(float[] source) {
+            copyRowsFrom(0, rows, source, 0);
+        }
+
+        @Override
+        public void copyRowsTo(int firstRow, int numOfRows, float[] destination, int offset) {
+            Objects.checkFromIndexSize(firstRow, numOfRows, rows);
+            model.copyRowsTo(firstRow, numOfRows, destination, offset);
+        }
+
+        @Override
+        public void copyRowsFrom(int firstRow, int numOfRows, float[] source, int offset) {
+            Objects.checkFromIndexSize(firstRow, numOfRows, rows);
+            model.copyRowsFrom(firstRow, numOfRows, source, offset);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package RandomWalksEmbedding.Incremental;
+
+/**
+ * Parameters of an incremental re-embedding step.
+ *
+ * @param radius number of hops around changed edges whose vertices get new walks
+ * @param walksPerVertex number of walks started from every affected vertex
+ * @param hops number of transitions per walk
+ * @param windowSize size of the sliding window
+ * @param numOfEpochs number of passes over the new samples
+ * @param learningRate SGD step size, usually lower than for a full training run
+ * @param seed seed for controlling randomness; every update derives its own seed from it
+ */
+public record IncrementalSettings(int radius,
+                                  int walksPerVertex,
+                                  int hops,
+                                  int windowSize,
+                                  int numOfEpochs,
+                                  double learningRate,
+                                  long seed) {
+    public IncrementalSettings {
+        if (radius < 0) {
+            throw new IllegalArgumentException("radius must be non-negative");
+        }
+        if (walksPerVertex < 1 || hops < 1 || windowSize < 1 || numOfEpochs < 1) {
+            throw new IllegalArgumentException("walksPerVertex, hops, windowSize and numOfEpochs must be positive");
+        }
+        if (!(learningRate > 0)) {
+            throw new IllegalArgumentException("learningRate must be positive");
+        }
+        if (seed < 1) {
+            throw new IllegalArgumentException("The value seed have to be positive integer");
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package RandomWalksEmbedding.LearningModel.Checkpoint;
+
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingAllocator;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingMatrix;
+import RandomWalksEmbedding.LearningModel.TrainingObjective;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes training checkpoints on a background thread so that training never waits for disk.
+ *
+ * <p>The writer owns two snapshot buffers. The training thread copies the matrices into a
+ * free buffer, which is a plain array copy for heap matrices, and continues; a background thread serializes
+ * the buffer to a temporary file, forces it to disk, atomically renames it, syncs the
+ * directory, and hands the buffer back. If both buffers are still being flushed the
+ * snapshot is skipped rather than blocking training. Only the newest {@code retained}
+ * checkpoint files are kept, and older ones are only deleted once the new one is durable,
+ * so a crash never leaves fewer intact checkpoints than before.</p>
+ *
+ * <p>The buffers are matrices from the writer's {@link EmbeddingAllocator}; pass the
+ * allocator of the trained model so that an off-heap model is also snapshotted off-heap
+ * and checkpoints add nothing to the heap that grows with the model.</p>
+ */
+public class AsyncCheckpointWriter implements AutoCloseable {
+    private final Path directory;
+    private final int retained;
+    private final EmbeddingAllocator allocator;
+    private final BlockingQueue<SnapshotBuffer> freeBuffers = new ArrayBlockingQueue<>(2);
+    private final ExecutorService flusher;
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+    private final LongAdder writtenCheckpoints = new LongAdder();
+    private final LongAdder skippedCheckpoints = new LongAdder();
+    private volatile boolean closed;
+    private long nextSequence;
+
+    /**
+     * Creates a writer for the given directory, continuing the sequence of any checkpoints
+     * already there, that snapshots into heap matrices.
+     *
+     * @param directory the checkpoint directory, created if missing
+     * @param retained number of most recent checkpoint files to keep
+     * @throws IOException if the directory cannot be created or listed
+     */
+    public AsyncCheckpointWriter(Path directory, int retained) throws IOException {
+        this(directory, retained, EmbeddingAllocator.heap());
+    }
+
+    /**
+     * Creates a writer for the given directory, continuing the sequence of any checkpoints
+     * already there.
+     *
+     * @param directory the checkpoint directory, created if missing
+     * @param retained number of most recent checkpoint files to keep
+     * @param allocator allocates the snapshot buffers
+     * @throws IOException if the directory cannot be created or listed
+     */
+    public AsyncCheckpointWriter(Path directory, int retained, EmbeddingAllocator allocator) throws IOException {
+        this.directory = Objects.requireNonNull(directory, "directory");
+        this.allocator = Objects.requireNonNull(allocator, "allocator");
+        if (retained < 1) {
+            throw new IllegalArgumentException("retained must be positive");
+        }
+        this.retained = retained;
+        Files.createDirectories(directory);
+        this.nextSequence = TrainingCheckpoint.latest(directory).map(TrainingCheckpoint::sequenceOf).orElse(-1L) + 1;
+        freeBuffers.add(new SnapshotBuffer());
+        freeBuffers.add(new SnapshotBuffer());
+        this.flusher = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Snapshots the training state into a free buffer and schedules it to be written.
+     * Called from the training thread between two samples.
+     *
+     * @param epoch the epoch to continue with
+     * @param cursor index of the next sample within the epoch
+     * @param processedSamples samples trained since the start of the run
+     * @param learningRate the current learning rate
+     * @param seed the seed of the run
+     * @param numOfSamples size of the training dataset
+     * @param objective the training objective
+     * @param embeddings the embedding matrix
+     * @param innerNodeVectors the hierarchical-softmax inner-node matrix, or null
+     * @return true if the snapshot was taken, false if both buffers were busy
+     * @throws IllegalStateException if the writer is closed or a previous checkpoint could not be written
+     * @throws IllegalArgumentException if the allocator cannot hold a matrix of that size
+     */
+    public boolean trySnapshot(int epoch, int cursor, long processedSamples, double learningRate, long seed, int numOfSamples,
+                               TrainingObjective objective, EmbeddingMatrix embeddings, EmbeddingMatrix innerNodeVectors) {
+        if (closed) {
+            throw new IllegalStateException("The checkpoint writer is closed");
+        }
+        IOException previousFailure = failure.get();
+        if (previousFailure != null) {
+            throw new IllegalStateException("Writing a checkpoint failed", previousFailure);
+        }
+        SnapshotBuffer buffer = freeBuffers.poll();
+        if (buffer == null) {
+            skippedCheckpoints.increment();
+            return false;
+        }
+        buffer.embeddings = copy(embeddings, buffer.embeddings);
+        buffer.innerNodeVectors = innerNodeVectors == null ? null : copy(innerNodeVectors, buffer.innerNodeVectors);
+        TrainingCheckpoint checkpoint = new TrainingCheckpoint(nextSequence++,
+                epoch,
+                cursor,
+                processedSamples,
+                learningRate,
+                seed,
+                numOfSamples,
+                objective,
+                buffer.embeddings,
+                buffer.innerNodeVectors);
+        try {
+            flusher.execute(() -> {
+                try {
+                    flush(checkpoint);
+                    writtenCheckpoints.increment();
+                } catch (IOException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    freeBuffers.add(buffer);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // closed concurrently
+            freeBuffers.add(buffer);
+            throw new IllegalStateException("The checkpoint writer is closed", e);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of checkpoints written so far.
+     *
+     * @return the written checkpoint count
+     */
+    public long writtenCheckpoints() {
+        return writtenCheckpoints.sum();
+    }
+
+    /**
+     * Returns the number of snapshots skipped because both buffers were busy.
+     *
+     * @return the skipped snapshot count
+     */
+    public long skippedCheckpoints() {
+        return skippedCheckpoints.sum();
+    }
+
+    /**
+     * Waits for pending checkpoints to be written and stops the background thread.
+     *
+     * @throws IOException if a checkpoint could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(1, TimeUnit.HOURS)) {
+                throw new IOException("Timed out waiting for checkpoints to be written");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for checkpoints to be written", e);
+        }
+        IOException writeFailure = failure.get();
+        if (writeFailure != null) {
+            throw writeFailure;
+        }
+    }
+
+    private void flush(TrainingCheckpoint checkpoint) throws IOException {
+        Path target = TrainingCheckpoint.fileFor(directory, checkpoint.sequence());
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        checkpoint.write(temporary);
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+
+        List<Path> checkpoints;
+        try (Stream<Path> files = Files.list(directory)) {
+            checkpoints = files.filter(TrainingCheckpoint::isCheckpointFile)
+                    .sorted((p1, p2) -> Long.compare(TrainingCheckpoint.sequenceOf(p2), TrainingCheckpoint.sequenceOf(p1)))
+                    .collect(Collectors.toList());
+        }
+        for (Path obsolete : checkpoints.subList(Math.min(retained, checkpoints.size()), checkpoints.size())) {
+            Files.deleteIfExists(obsolete);
+        }
+    }
+
+    /**
+     * Makes the rename durable. Platforms that cannot open a directory as a channel, such
+     * as Windows, journal the rename themselves.
+     */
+    private void syncDirectory() throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    private EmbeddingMatrix copy(EmbeddingMatrix matrix, EmbeddingMatrix buffer) {
+        EmbeddingMatrix target = buffer != null && buffer.rows() == matrix.rows() && buffer.dimension() == matrix.dimension()
+                ? buffer
+                : allocator.allocate(matrix.rows(), matrix.dimension());
+        target.copyFrom(matrix);
+        return target;
+    }
+
+    private static final class SnapshotBuffer {
+        private EmbeddingMatrix embeddings;
+        private EmbeddingMatrix innerNodeVectors;
+    }
+}
@@ -0,0 +1,231 @@
+package RandomWalksEmbedding.LearningModel.Checkpoint;
+
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingAllocator;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingMatrix;
+import RandomWalksEmbedding.LearningModel.TrainingObjective;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Complete training state of a {@code SkipGram} run at a sample boundary.
+ *
+ * <p>The SGD loop itself draws no random numbers (the dataset is shuffled when it
+ * is generated), so the matrices together with the epoch and cursor fully determine
+ * how training continues. The seed and dataset size are stored to detect resuming
+ * against a different configuration.</p>
+ *
+ * <p>The matrices are streamed to and from the file in blocks of rows, so a checkpoint
+ * of an off-heap model never needs a heap array of the model's size.</p>
+ *
+ * @param sequence monotonically increasing checkpoint number
+ * @param epoch the epoch to continue with
+ * @param cursor index of the next sample within the epoch
+ * @param processedSamples samples trained since the start of the run, i.e. the learning-rate schedule position
+ * @param learningRate the learning rate at this position
+ * @param seed the seed of the run
+ * @param numOfSamples size of the training dataset
+ * @param objective the training objective
+ * @param embeddings the embedding matrix
+ * @param innerNodeVectors the hierarchical-softmax inner-node matrix, null for negative sampling
+ */
+public record TrainingCheckpoint(long sequence,
+                                 int epoch,
+                                 int cursor,
+                                 long processedSamples,
+                                 double learningRate,
+                                 long seed,
+                                 int numOfSamples,
+                                 TrainingObjective objective,
+                                 EmbeddingMatrix embeddings,
+                                 EmbeddingMatrix innerNodeVectors) {
+    private static final int FORMAT_MAGIC = 0x4E45434B;
+    private static final int FORMAT_VERSION = 2;
+    private static final int BLOCK_FLOATS = 1 << 14;
+    private static final String FILE_PREFIX = "checkpoint-";
+    private static final String FILE_SUFFIX = ".bin";
+
+    public TrainingCheckpoint {
+        Objects.requireNonNull(objective, "objective");
+        Objects.requireNonNull(embeddings, "embeddings");
+        if (innerNodeVectors != null && innerNodeVectors.dimension() != embeddings.dimension()) {
+            throw new IllegalArgumentException("The inner-node vectors and embeddings have different dimensions");
+        }
+    }
+
+    /**
+     * Writes the checkpoint to a file and forces it to the storage device before returning,
+     * so that a rename that follows cannot expose a partially written file after a crash.
+     *
+     * @param file the target file
+     * @throws IOException if writing fails
+     */
+    public void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(FORMAT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(sequence);
+            out.writeInt(epoch);
+            out.writeInt(cursor);
+            out.writeLong(processedSamples);
+            out.writeDouble(learningRate);
+            out.writeLong(seed);
+            out.writeInt(numOfSamples);
+            out.writeUTF(objective.name());
+            out.writeInt(embeddings.dimension());
+            writeMatrix(out, embeddings);
+            writeMatrix(out, innerNodeVectors);
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Reads a checkpoint from a file into heap matrices.
+     *
+     * @param file the checkpoint file
+     * @return the checkpoint
+     * @throws IOException if reading fails or the file is not a checkpoint
+     */
+    public static TrainingCheckpoint read(Path file) throws IOException {
+        return read(file, EmbeddingAllocator.heap());
+    }
+
+    /**
+     * Reads a checkpoint from a file into matrices from the given allocator.
+     *
+     * @param file the checkpoint file
+     * @param allocator allocates the restored matrices
+     * @return the checkpoint
+     * @throws IOException if reading fails or the file is not a checkpoint
+     */
+    public static TrainingCheckpoint read(Path file, EmbeddingAllocator allocator) throws IOException {
+        Objects.requireNonNull(allocator, "allocator");
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != FORMAT_MAGIC) {
+                throw new IOException(file + " is not a training checkpoint");
+            }
+            int version = in.readInt();
+            if (version != 1 && version != FORMAT_VERSION) {
+                throw new IOException(file + " has unsupported checkpoint version " + version);
+            }
+            long sequence = in.readLong();
+            int epoch = in.readInt();
+            int cursor = in.readInt();
+            long processedSamples = in.readLong();
+            double learningRate = in.readDouble();
+            long seed = in.readLong();
+            int numOfSamples = in.readInt();
+            TrainingObjective objective = TrainingObjective.valueOf(in.readUTF());
+            if (version == 1) {
+                // version 1 stored the row count too, and every matrix as its component count
+                in.readInt();
+            }
+            int dimension = in.readInt();
+            if (dimension < 1) {
+                throw new IOException(file + " has an invalid dimension " + dimension);
+            }
+            EmbeddingMatrix embeddings = readMatrix(in, version, dimension, allocator);
+            if (embeddings == null) {
+                throw new IOException(file + " has no embeddings");
+            }
+            EmbeddingMatrix innerNodeVectors = readMatrix(in, version, dimension, allocator);
+            return new TrainingCheckpoint(sequence, epoch, cursor, processedSamples, learningRate, seed, numOfSamples,
+                    objective, embeddings, innerNodeVectors);
+        }
+    }
+    /**
+     * Finds the most recent complete checkpoint in a directory.
+     *
+     * @param directory the checkpoint directory
+     * @return the latest checkpoint file, or empty if there is none
+     * @throws IOException if the directory cannot be listed
+     */
+    public static Optional<Path> latest(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(TrainingCheckpoint::isCheckpointFile)
+                    .max(Comparator.comparingLong(TrainingCheckpoint::sequenceOf));
+        }
+    }
+
+    static Path fileFor(Path directory, long sequence) {
+        return directory.resolve(String.format("%s%012d%s", FILE_PREFIX, sequence, FILE_SUFFIX));
+    }
+
+    static boolean isCheckpointFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+    }
+
+    static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+    }
+
+    private static void writeMatrix(DataOutputStream out, EmbeddingMatrix matrix) throws IOException {
+        if (matrix == null) {
+            out.writeInt(0);
+            return;
+        }
+        out.writeInt(matrix.rows());
+        int dimension = matrix.dimension();
+        int blockRows = Math.max(1, BLOCK_FLOATS / dimension);
+        float[] block = new float[blockRows * dimension];
+        ByteBuffer bytes = ByteBuffer.allocate(block.length * Float.BYTES);
+        for (int firstRow = 0; firstRow < matrix.rows(); firstRow += blockRows) {
+            int numOfRows = Math.min(blockRows, matrix.rows() - firstRow);
+            matrix.copyRowsTo(firstRow, numOfRows, block, 0);
+            bytes.clear();
+            bytes.asFloatBuffer().put(block, 0, numOfRows * dimension);
+            out.write(bytes.array(), 0, numOfRows * dimension * Float.BYTES);
+        }
+    }
+
+    private static EmbeddingMatrix readMatrix(DataInputStream in, int version, int dimension, EmbeddingAllocator allocator) throws IOException {
+        int rows;
+        if (version == 1) {
+            int components = in.readInt();
+            if (components < 0 || components % dimension != 0) {
+                throw new IOException("A matrix of " + components + " components does not have dimension " + dimension);
+            }
+            rows = components / dimension;
+        } else {
+            rows = in.readInt();
+            if (rows < 0) {
+                throw new IOException("Negative row count " + rows);
+            }
+        }
+        if (rows == 0) {
+            return null;
+        }
+        EmbeddingMatrix matrix = allocator.allocate(rows, dimension);
+        int blockRows = Math.max(1, BLOCK_FLOATS / dimension);
+        float[] block = new float[blockRows * dimension];
+        ByteBuffer bytes = ByteBuffer.allocate(block.length * Float.BYTES);
+        for (int firstRow = 0; firstRow < rows; firstRow += blockRows) {
+            int numOfRows = Math.min(blockRows, rows - firstRow);
+            in.readFully(bytes.array(), 0, numOfRows * dimension * Float.BYTES);
+            bytes.clear();
+            bytes.asFloatBuffer().get(block, 0, numOfRows * dimension);
+            matrix.copyRowsFrom(firstRow, numOfRows, block, 0);
+        }
+        return matrix;
+    }
+}
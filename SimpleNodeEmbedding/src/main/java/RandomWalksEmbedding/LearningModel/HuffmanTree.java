@@ -0,0 +1,144 @@
+package RandomWalksEmbedding.LearningModel;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Huffman tree over vertex frequencies, used by the hierarchical-softmax objective.
+ *
+ * <p>Every vertex is a leaf; the path from the root to a leaf is described by the
+ * inner nodes it visits ({@link #points}) and the branch taken at each of them
+ * ({@link #codes}). Frequent vertices get short paths, so the expected number of
+ * inner-node updates per training pair is about {@code log2 |V|} or less.
+ * Inner nodes are numbered [0, numOfVertices - 1) with the root last.</p>
+ */
+public class HuffmanTree {
+    private final int numOfVertices;
+    private final int[] pathOffsets;
+    private final int[] points;
+    private final byte[] codes;
+
+    /**
+     * Builds the tree with the two-queue construction used by word2vec.
+     *
+     * @param frequencies occurrence count of every vertex; zero counts are treated as one
+     * @throws IllegalArgumentException if there are no vertices
+     */
+    public HuffmanTree(long[] frequencies) {
+        Objects.requireNonNull(frequencies, "frequencies cannot be null");
+        int n = frequencies.length;
+        if (n < 1) {
+            throw new IllegalArgumentException("HuffmanTree needs at least one vertex");
+        }
+        this.numOfVertices = n;
+
+        Integer[] order = new Integer[n];
+        for (int vertex = 0; vertex < n; vertex++) {
+            order[vertex] = vertex;
+        }
+        Arrays.sort(order, (v1, v2) -> Long.compare(Math.max(1, frequencies[v1]), Math.max(1, frequencies[v2])));
+
+        // nodes [0, n) are the leaves in ascending frequency, nodes [n, 2n - 1) the inner nodes
+        long[] count = new long[2 * n - 1];
+        int[] parent = new int[2 * n - 1];
+        byte[] branch = new byte[2 * n - 1];
+        for (int leaf = 0; leaf < n; leaf++) {
+            count[leaf] = Math.max(1, frequencies[order[leaf]]);
+        }
+        int nextLeaf = 0;
+        int nextInner = n;
+        for (int inner = n; inner < 2 * n - 1; inner++) {
+            int[] smallest = new int[2];
+            for (int pick = 0; pick < 2; pick++) {
+                if (nextLeaf < n && (nextInner >= inner || count[nextLeaf] <= count[nextInner])) {
+                    smallest[pick] = nextLeaf++;
+                } else {
+                    smallest[pick] = nextInner++;
+                }
+            }
+            count[inner] = count[smallest[0]] + count[smallest[1]];
+            parent[smallest[0]] = inner;
+            parent[smallest[1]] = inner;
+            branch[smallest[1]] = 1;
+        }
+
+        int[] depth = new int[n];
+        int total = 0;
+        for (int leaf = 0; leaf < n; leaf++) {
+            for (int node = leaf; node < 2 * n - 2; node = parent[node]) {
+                depth[leaf]++;
+            }
+            total += depth[leaf];
+        }
+
+        this.pathOffsets = new int[n + 1];
+        this.points = new int[total];
+        this.codes = new byte[total];
+        int[] lengths = new int[n];
+        for (int leaf = 0; leaf < n; leaf++) {
+            lengths[order[leaf]] = depth[leaf];
+        }
+        for (int vertex = 0; vertex < n; vertex++) {
+            pathOffsets[vertex + 1] = pathOffsets[vertex] + lengths[vertex];
+        }
+        for (int leaf = 0; leaf < n; leaf++) {
+            int vertex = order[leaf];
+            // walk leaf -> root and fill the path from its end, so it reads root -> leaf
+            int position = pathOffsets[vertex + 1];
+            for (int node = leaf; node < 2 * n - 2; node = parent[node]) {
+                position--;
+                codes[position] = branch[node];
+                points[position] = parent[node] - n;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of inner nodes, i.e. the number of vectors the objective needs.
+     *
+     * @return {@code numOfVertices - 1}
+     */
+    public int innerNodeCount() {
+        return numOfVertices - 1;
+    }
+
+    /**
+     * Returns the start of the vertex path in {@link #points} and {@link #codes}.
+     *
+     * @param vertex the vertex index
+     * @return the path start offset
+     */
+    public int pathStart(int vertex) {
+        return pathOffsets[vertex];
+    }
+
+    /**
+     * Returns the end (exclusive) of the vertex path in {@link #points} and {@link #codes}.
+     *
+     * @param vertex the vertex index
+     * @return the path end offset
+     */
+    public int pathEnd(int vertex) {
+        return pathOffsets[vertex + 1];
+    }
+
+    /**
+     * Returns the inner node visited at a path position.
+     *
+     * @param position a position in [pathStart, pathEnd)
+     * @return the inner node index
+     */
+    public int point(int position) {
+        return points[position];
+    }
+
+    /**
+     * Returns the branch (0 or 1) taken at a path position.
+     *
+     * @param position a position in [pathStart, pathEnd)
+     * @return the branch code
+     */
+    public int code(int position) {
+        return codes[position];
+    }
+}
@@ -1,24 +1,147 @@
 package RandomWalksEmbedding.LearningModel;
 
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingAllocator;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingMatrix;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingTable;
+import RandomWalksEmbedding.LearningModel.Checkpoint.AsyncCheckpointWriter;
+import RandomWalksEmbedding.LearningModel.Checkpoint.TrainingCheckpoint;
+import RandomWalksEmbedding.Metrics.MetricsStrategy.TrainingListener;
+import RandomWalksEmbedding.Metrics.TrainingMetrics;
 import RandomWalksEmbedding.SampleDataset.Sample;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
 import java.util.Random;
-import java.util.stream.IntStream;
 
 public class SkipGram {
+    private static final int METRICS_FLUSH_INTERVAL = 4096;
+    private static final double LOSS_EPSILON = 1e-12;
+
     private final int numOfNode;
     private final ArrayList<Sample> dataSamples;
     private final int embeddingDimension;
     private final int numOfEpochs;
     private final double learningRate;
     private final long seed;
-    private final HashMap<Integer, double[]> Embeddings;
+    private final EmbeddingMatrix Embeddings;
+    private final TrainingMetrics metrics;
+    private final TrainingObjective objective;
+    private final HuffmanTree huffmanTree;
+    private final EmbeddingMatrix innerNodeVectors;
+    private int startEpoch;
+    private int startCursor;
+    private long processedSamples;
+
+    public SkipGram(int numOfNodes, List<Sample> dataSamples, int embeddingDimension, int numOfEpochs, double learningRate, long seed) {
+        this(numOfNodes, dataSamples, embeddingDimension, numOfEpochs, learningRate, seed, new TrainingMetrics());
+    }
+
+    /**
+     * Creates a Skip-Gram trainer that reports into shared metrics.
+     *
+     * @param numOfNodes number of indexed vertices
+     * @param dataSamples labelled (target, context) samples
+     * @param embeddingDimension size of every embedding vector
+     * @param numOfEpochs number of passes over the samples
+     * @param learningRate SGD step size
+     * @param seed seed of the embedding initialization
+     * @param metrics metrics receiving loss, throughput and learning rate
+     */
+    public SkipGram(int numOfNodes, List<Sample> dataSamples, int embeddingDimension, int numOfEpochs, double learningRate, long seed, TrainingMetrics metrics) {
+        this(numOfNodes, dataSamples, embeddingDimension, numOfEpochs, learningRate, seed, metrics, TrainingObjective.NegativeSampling);
+    }
+
+    /**
+     * Creates a Skip-Gram trainer with an explicit training objective.
+     *
+     * <p>With {@link TrainingObjective#HierarchicalSoftmax} only the positive samples are
+     * kept. A Huffman tree is built over how often each vertex occurs as a context, and
+     * every positive pair updates the O(log |V|) inner-node vectors on the path of its
+     * context vertex instead of relying on explicit negative samples, so the dataset can
+     * come from {@code generatePositiveSampleDataset()}.</p>
+     *
+     * @param numOfNodes number of indexed vertices
+     * @param dataSamples labelled (target, context) samples
+     * @param embeddingDimension size of every embedding vector
+     * @param numOfEpochs number of passes over the samples
+     * @param learningRate SGD step size
+     * @param seed seed of the embedding initialization
+     * @param metrics metrics receiving loss, throughput and learning rate
+     * @param objective the training objective
+     */
+    public SkipGram(int numOfNodes, List<Sample> dataSamples, int embeddingDimension, int numOfEpochs, double learningRate, long seed, TrainingMetrics metrics, TrainingObjective objective) {
+        this(numOfNodes, dataSamples, embeddingDimension, numOfEpochs, learningRate, seed, metrics, objective, null);
+    }
+
+    /**
+     * Creates a Skip-Gram trainer that starts from existing embeddings instead of random ones,
+     * e.g. to refine a previous model after the graph changed.
+     *
+     * <p>The initial rows are copied, so the given table is left untouched. Hierarchical-softmax
+     * inner-node vectors are not part of the warm start and begin at zero.</p>
+     *
+     * @param numOfNodes number of indexed vertices
+     * @param dataSamples labelled (target, context) samples
+     * @param embeddingDimension size of every embedding vector
+     * @param numOfEpochs number of passes over the samples
+     * @param learningRate SGD step size
+     * @param seed seed of the embedding initialization
+     * @param metrics metrics receiving loss, throughput and learning rate
+     * @param objective the training objective
+     * @param initialEmbeddings starting embeddings of shape numOfNodes x embeddingDimension, or null for random initialization
+     * @throws IllegalArgumentException if the initial embeddings have the wrong shape
+     */
+    public SkipGram(int numOfNodes, List<Sample> dataSamples, int embeddingDimension, int numOfEpochs, double learningRate, long seed, TrainingMetrics metrics, TrainingObjective objective, EmbeddingTable initialEmbeddings) {
+        this(numOfNodes, dataSamples, embeddingDimension, numOfEpochs, learningRate, seed, metrics, objective, initialEmbeddings, EmbeddingAllocator.heap());
+    }
+
+    /**
+     * Creates a Skip-Gram trainer whose matrices are allocated by the given allocator,
+     * e.g. off-heap for models too large to keep on the garbage-collected heap.
+     *
+     * @param numOfNodes number of indexed vertices
+     * @param dataSamples labelled (target, context) samples
+     * @param embeddingDimension size of every embedding vector
+     * @param numOfEpochs number of passes over the samples
+     * @param learningRate SGD step size
+     * @param seed seed of the embedding initialization
+     * @param metrics metrics receiving loss, throughput and learning rate
+     * @param objective the training objective
+     * @param initialEmbeddings starting embeddings of shape numOfNodes x embeddingDimension, or null for random initialization
+     * @param allocator allocator of the embedding and inner-node matrices
+     * @throws IllegalArgumentException if the initial embeddings have the wrong shape
+     */
+    public SkipGram(int numOfNodes, List<Sample> dataSamples, int embeddingDimension, int numOfEpochs, double learningRate, long seed, TrainingMetrics metrics, TrainingObjective objective, EmbeddingTable initialEmbeddings, EmbeddingAllocator allocator) {
+        this(numOfNodes, dataSamples, embeddingDimension, numOfEpochs, learningRate, seed, metrics, objective, initialEmbeddings, allocator, null);
+    }
+
+    /**
+     * Creates a Skip-Gram trainer that trains the given matrix in place instead of a copy,
+     * e.g. to refine embeddings the caller already holds without duplicating them.
+     *
+     * @param dataSamples labelled (target, context) samples
+     * @param numOfEpochs number of passes over the samples
+     * @param learningRate SGD step size
+     * @param seed seed of the training run
+     * @param metrics metrics receiving loss, throughput and learning rate
+     * @param objective the training objective
+     * @param model the embeddings to train, one row per indexed vertex
+     * @param allocator allocator of the hierarchical-softmax inner-node matrix
+     */
+    public SkipGram(List<Sample> dataSamples, int numOfEpochs, double learningRate, long seed, TrainingMetrics metrics, TrainingObjective objective, EmbeddingMatrix model, EmbeddingAllocator allocator) {
+        this(Objects.requireNonNull(model, "model").rows(), dataSamples, model.dimension(), numOfEpochs, learningRate, seed, metrics, objective, null, allocator, model);
+    }
 
-    public SkipGram(int numOfNodes, ArrayList<Sample> dataSamples, int embeddingDimension, int numOfEpochs, double learningRate, long seed) {
+    private SkipGram(int numOfNodes, List<Sample> dataSamples, int embeddingDimension, int numOfEpochs, double learningRate, long seed, TrainingMetrics metrics, TrainingObjective objective, EmbeddingTable initialEmbeddings, EmbeddingAllocator allocator, EmbeddingMatrix model) {
         this.numOfNode = numOfNodes;
+        this.objective = Objects.requireNonNull(objective, "objective");
         this.dataSamples = new ArrayList<>(dataSamples);
+        if (objective == TrainingObjective.HierarchicalSoftmax) {
+            this.dataSamples.removeIf(sample -> !isPositive(sample.label()));
+        }
         if (embeddingDimension < 1) {
             throw new IllegalArgumentException("The number of the embedding dimension size have to be positive integer");
         }
@@ -35,71 +158,292 @@ public class SkipGram {
         }
         this.seed = seed;
         this.learningRate = learningRate;
-        Embeddings = new HashMap<>(initializeEmbedding());
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+        Objects.requireNonNull(allocator, "allocator");
+        if (model != null) {
+            Embeddings = model;
+        } else if (initialEmbeddings == null) {
+            Embeddings = initializeEmbedding(allocator);
+        } else {
+            if (initialEmbeddings.rows() != numOfNodes || initialEmbeddings.dimension() != embeddingDimension) {
+                throw new IllegalArgumentException("The initial embeddings have to be of shape " + numOfNodes + " x " + embeddingDimension);
+            }
+            Embeddings = allocator.allocate(numOfNodes, embeddingDimension);
+            for (int node = 0; node < numOfNodes; node++) {
+                for (int embeddingElementIndex = 0; embeddingElementIndex < embeddingDimension; embeddingElementIndex++) {
+                    Embeddings.set(node, embeddingElementIndex, initialEmbeddings.get(node, embeddingElementIndex));
+                }
+            }
+        }
+        if (objective == TrainingObjective.HierarchicalSoftmax) {
+            long[] contextFrequencies = new long[numOfNodes];
+            for (Sample sample : this.dataSamples) {
+                contextFrequencies[sample.contextNode()]++;
+            }
+            this.huffmanTree = new HuffmanTree(contextFrequencies);
+            this.innerNodeVectors = allocator.allocate(huffmanTree.innerNodeCount(), embeddingDimension);
+        } else {
+            this.huffmanTree = null;
+            this.innerNodeVectors = null;
+        }
     }
 
-    private HashMap<Integer, double[]> initializeEmbedding() {
-        HashMap<Integer, double[]> embeddings = new HashMap<>();
+    private EmbeddingMatrix initializeEmbedding(EmbeddingAllocator allocator) {
+        EmbeddingMatrix embeddings = allocator.allocate(numOfNode, embeddingDimension);
         Random random = new Random(seed);
         for (int node = 0; node < numOfNode; node++) {
-            double[] embeddingVec = new double[embeddingDimension];
             for (int embeddingElementIndex = 0; embeddingElementIndex < embeddingDimension; embeddingElementIndex++) {
-                embeddingVec[embeddingElementIndex] = random.nextDouble() * 0.01;
+                embeddings.set(node, embeddingElementIndex, (float) (random.nextDouble() * 0.01));
             }
-            embeddings.put(node + 1, embeddingVec);
         }
         return embeddings;
     }
 
     public void trainModel() {
-        for (int iter = 0; iter < this.numOfEpochs; iter++) {
-            for (Sample instance : this.dataSamples) {
-                int targetNode = instance.targetNode();
-                int contextNode = instance.contextNode();
-                double[] targetNodeEmbedding = Embeddings.get(targetNode);
-                double[] contextNodeEmbedding = Embeddings.get(contextNode);
-
-                double[] targetNodeGradient = computeGradient(targetNodeEmbedding, contextNodeEmbedding, instance.label());
-                double[] contextNodeGradient = computeGradient(contextNodeEmbedding, targetNodeEmbedding, instance.label());
-
-                updateEmbeddings(instance.targetNode(), targetNodeGradient);
-                updateEmbeddings(instance.contextNode(), contextNodeGradient);
+        trainModel(null, 0);
+    }
+
+    /**
+     * Trains the model, periodically handing snapshots of the training state to a checkpoint writer.
+     *
+     * <p>A snapshot is offered every {@code checkpointInterval} samples and at the end of every
+     * epoch. Snapshots are copied on the training thread and written in the background, see
+     * {@link AsyncCheckpointWriter}. After {@link #resumeFrom}, training continues at the
+     * checkpointed epoch and sample.</p>
+     *
+     * @param checkpoints the checkpoint writer, or null to disable checkpoints
+     * @param checkpointInterval number of samples between snapshots, 0 for epoch boundaries only
+     */
+    public void trainModel(AsyncCheckpointWriter checkpoints, long checkpointInterval) {
+        if (checkpointInterval < 0) {
+            throw new IllegalArgumentException("checkpointInterval must be non-negative");
+        }
+        long progressInterval = metrics.progressInterval();
+        long flushInterval = progressInterval > 0 ? Math.min(progressInterval, METRICS_FLUSH_INTERVAL) : METRICS_FLUSH_INTERVAL;
+        metrics.setLearningRate(this.learningRate);
+        float[] gradient = new float[embeddingDimension];
+        for (int iter = startEpoch; iter < this.numOfEpochs; iter++) {
+            long pendingSamples = 0;
+            double pendingLoss = 0;
+            long sinceProgress = 0;
+            int cursor = iter == startEpoch ? startCursor : 0;
+            while (cursor < this.dataSamples.size()) {
+                Sample instance = this.dataSamples.get(cursor++);
+                pendingLoss += trainPair(instance.targetNode(), instance.contextNode(), isPositive(instance.label()), gradient);
+                processedSamples++;
+                if (checkpoints != null && checkpointInterval > 0 && processedSamples % checkpointInterval == 0) {
+                    snapshot(checkpoints, iter, cursor);
+                }
+                if (++pendingSamples == flushInterval) {
+                    metrics.recordTraining(pendingSamples, pendingLoss);
+                    sinceProgress += pendingSamples;
+                    pendingSamples = 0;
+                    pendingLoss = 0;
+                    if (progressInterval > 0 && sinceProgress >= progressInterval) {
+                        metrics.publishProgress(iter);
+                        sinceProgress = 0;
+                    }
+                }
+            }
+            metrics.recordTraining(pendingSamples, pendingLoss);
+            metrics.publishEpoch(iter);
+            if (checkpoints != null) {
+                snapshot(checkpoints, iter + 1, 0);
             }
-            System.out.println("Epoch " + iter + " completed.");
         }
+        startEpoch = this.numOfEpochs;
+        startCursor = 0;
     }
 
-    private void updateEmbeddings(int nodeIndex, double[] gradient) {
-        double[] newEmbedding = new double[embeddingDimension];
-        for (int embeddingElementIndex = 0; embeddingElementIndex < embeddingDimension; embeddingElementIndex++) {
-            newEmbedding[embeddingElementIndex] = Embeddings.get(nodeIndex)[embeddingElementIndex]
-                    + this.learningRate
-                    * gradient[embeddingElementIndex];
+    private void snapshot(AsyncCheckpointWriter checkpoints, int epoch, int cursor) {
+        checkpoints.trySnapshot(epoch,
+                cursor,
+                processedSamples,
+                learningRate,
+                seed,
+                dataSamples.size(),
+                objective,
+                Embeddings,
+                innerNodeVectors);
+    }
+
+    /**
+     * Restores the matrices and training position of a checkpoint; the next call to
+     * {@code trainModel} continues from there. With the same samples, hyperparameters and
+     * single-threaded training the result equals that of an uninterrupted run.
+     *
+     * @param checkpoint the checkpoint to resume from
+     * @throws IllegalArgumentException if the checkpoint belongs to a different configuration
+     */
+    public void resumeFrom(TrainingCheckpoint checkpoint) {
+        Objects.requireNonNull(checkpoint, "checkpoint");
+        if (checkpoint.seed() != seed
+                || checkpoint.numOfSamples() != dataSamples.size()
+                || checkpoint.objective() != objective
+                || checkpoint.embeddings().rows() != numOfNode
+                || checkpoint.embeddings().dimension() != embeddingDimension
+                || checkpoint.learningRate() != learningRate) {
+            throw new IllegalArgumentException("The checkpoint does not match this training configuration");
         }
-        Embeddings.replace(nodeIndex, newEmbedding);
+        if (checkpoint.epoch() < 0 || checkpoint.epoch() > numOfEpochs || checkpoint.cursor() < 0 || checkpoint.cursor() > dataSamples.size()) {
+            throw new IllegalArgumentException("The checkpoint position is out of range");
+        }
+        int innerNodes = innerNodeVectors == null ? 0 : innerNodeVectors.rows();
+        int checkpointInnerNodes = checkpoint.innerNodeVectors() == null ? 0 : checkpoint.innerNodeVectors().rows();
+        if (checkpointInnerNodes != innerNodes) {
+            throw new IllegalArgumentException("The checkpoint has " + checkpointInnerNodes
+                    + " inner-node vectors, " + innerNodes + " expected for this Huffman tree");
+        }
+        Embeddings.copyFrom(checkpoint.embeddings());
+        if (innerNodeVectors != null) {
+            innerNodeVectors.copyFrom(checkpoint.innerNodeVectors());
+        }
+        startEpoch = checkpoint.epoch();
+        startCursor = checkpoint.cursor();
+        processedSamples = checkpoint.processedSamples();
     }
 
-    private double[] computeGradient(double[] embedding1, double[] embedding2, String label) {
-        double[] gradient = new double[embeddingDimension];
-        double dotProduct = IntStream.range(0, embeddingDimension)
-                .mapToDouble(i -> embedding1[i] * embedding2[i])
-                .sum();
+    /**
+     * Applies one SGD step for a (target, context) pair under the configured objective.
+     *
+     * <p>Rows are updated in place without locking, so several threads may call this
+     * concurrently in the lock-free (Hogwild) style; conflicting updates to the same
+     * row are rare on sparse graphs and tolerated by SGD. Metrics are not updated here,
+     * callers record the returned loss in batches. Each thread passes its own
+     * {@code gradient} row, which is overwritten by hierarchical softmax.</p>
+     *
+     * @param targetNode the target vertex index
+     * @param contextNode the context vertex index
+     * @param positive whether the pair is a positive sample; negatives are ignored by hierarchical softmax
+     * @param gradient scratch row of at least the embedding dimension, owned by the calling thread
+     * @return the log-loss of the pair before the update
+     */
+    public double trainPair(int targetNode, int contextNode, boolean positive, float[] gradient) {
+        if (objective == TrainingObjective.HierarchicalSoftmax) {
+            return positive ? trainHierarchicalSoftmax(targetNode, contextNode, gradient) : 0.0;
+        }
+        double prediction = sigmoid(Embeddings.dot(targetNode, contextNode));
+        float step = (float) (this.learningRate * ((positive ? 1 : 0) - prediction));
+
+        for (int embeddingElementIndex = 0; embeddingElementIndex < embeddingDimension; embeddingElementIndex++) {
+            float targetElement = Embeddings.get(targetNode, embeddingElementIndex);
+            float contextElement = Embeddings.get(contextNode, embeddingElementIndex);
+            Embeddings.add(targetNode, embeddingElementIndex, step * contextElement);
+            Embeddings.add(contextNode, embeddingElementIndex, step * targetElement);
+        }
+
+        return -Math.log(Math.max(positive ? prediction : 1 - prediction, LOSS_EPSILON));
+    }
 
-        double prediction = sigmoid(dotProduct);
-        double groundTruth = label.equals("positive") ? 1 : 0;
-        double error = groundTruth - prediction;
+    /**
+     * Applies one hierarchical-softmax step: the target vector predicts every branch on the
+     * Huffman path of the context vertex, and each visited inner-node vector is updated.
+     *
+     * @return the log-loss of the pair before the update
+     */
+    private double trainHierarchicalSoftmax(int targetNode, int contextNode, float[] targetNodeGradient) {
+        Arrays.fill(targetNodeGradient, 0, embeddingDimension, 0f);
+        double loss = 0;
+        for (int position = huffmanTree.pathStart(contextNode); position < huffmanTree.pathEnd(contextNode); position++) {
+            int innerNode = huffmanTree.point(position);
+            double prediction = sigmoid(dot(targetNode, innerNode));
+            double groundTruth = 1 - huffmanTree.code(position);
+            float step = (float) (this.learningRate * (groundTruth - prediction));
+            loss -= Math.log(Math.max(groundTruth == 1 ? prediction : 1 - prediction, LOSS_EPSILON));
+            for (int embeddingElementIndex = 0; embeddingElementIndex < embeddingDimension; embeddingElementIndex++) {
+                targetNodeGradient[embeddingElementIndex] += step * innerNodeVectors.get(innerNode, embeddingElementIndex);
+                innerNodeVectors.add(innerNode, embeddingElementIndex, step * Embeddings.get(targetNode, embeddingElementIndex));
+            }
+        }
+        for (int embeddingElementIndex = 0; embeddingElementIndex < embeddingDimension; embeddingElementIndex++) {
+            Embeddings.add(targetNode, embeddingElementIndex, targetNodeGradient[embeddingElementIndex]);
+        }
+        return loss;
+    }
 
+    private double dot(int targetNode, int innerNode) {
+        float sum = 0;
         for (int embeddingElementIndex = 0; embeddingElementIndex < embeddingDimension; embeddingElementIndex++) {
-            gradient[embeddingElementIndex] = error * embedding2[embeddingElementIndex];
+            sum += Embeddings.get(targetNode, embeddingElementIndex) * innerNodeVectors.get(innerNode, embeddingElementIndex);
         }
-        return gradient;
+        return sum;
+    }
+
+    /**
+     * Samples produced by {@code PositiveAndNegativeSamples} are labelled "1" and "0";
+     * "positive" is accepted as well for hand-built datasets.
+     *
+     * @param label the sample label
+     * @return whether the label marks a positive sample
+     */
+    public static boolean isPositive(String label) {
+        return label.equals("1") || label.equals("positive");
     }
 
     private double sigmoid(double x) {
         return 1.0 / (1.0 + Math.exp(-x));
     }
 
-    public HashMap<Integer, double[]> getEmbeddings() {
+    /**
+     * Registers a listener for progress and epoch events.
+     *
+     * @param listener the listener to add
+     */
+    public void addTrainingListener(TrainingListener listener) {
+        metrics.addListener(listener);
+    }
+
+    /**
+     * Returns the metrics this trainer reports into.
+     *
+     * @return the training metrics
+     */
+    public TrainingMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the SGD step size.
+     *
+     * @return the learning rate
+     */
+    public double getLearningRate() {
+        return learningRate;
+    }
+
+    /**
+     * Returns the objective this trainer optimizes.
+     *
+     * @return the training objective
+     */
+    public TrainingObjective getObjective() {
+        return objective;
+    }
+
+    /**
+     * Returns the live float32 embedding matrix that training writes into, row {@code i}
+     * being the embedding of vertex index {@code i}.
+     *
+     * @return the embedding matrix
+     */
+    public EmbeddingMatrix getEmbeddingMatrix() {
         return Embeddings;
     }
+
+    /**
+     * Returns a copy of the embeddings keyed by vertex index.
+     *
+     * @return vertex index to embedding vector
+     */
+    public HashMap<Integer, double[]> getEmbeddings() {
+        HashMap<Integer, double[]> embeddings = new HashMap<>();
+        for (int node = 0; node < numOfNode; node++) {
+            double[] embeddingVec = new double[embeddingDimension];
+            for (int embeddingElementIndex = 0; embeddingElementIndex < embeddingDimension; embeddingElementIndex++) {
+                embeddingVec[embeddingElementIndex] = Embeddings.get(node, embeddingElementIndex);
+            }
+            embeddings.put(node, embeddingVec);
+        }
+        return embeddings;
+    }
 }
@@ -0,0 +1,15 @@
+package RandomWalksEmbedding.LearningModel;
+
+/**
+ * Enumeration of the Skip-Gram training objectives.
+ */
+public enum TrainingObjective {
+    /**
+     * Logistic loss over the labelled positive and negative samples.
+     */
+    NegativeSampling,
+    /**
+     * Hierarchical softmax over a Huffman tree of vertex frequencies; negative samples are ignored.
+     */
+    HierarchicalSoftmax
+}
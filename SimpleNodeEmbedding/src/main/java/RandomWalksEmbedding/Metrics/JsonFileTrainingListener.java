@@ -0,0 +1,100 @@
+package RandomWalksEmbedding.Metrics;
+
+import RandomWalksEmbedding.Metrics.MetricsStrategy.TrainingListener;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Training listener that appends one JSON object per event to a file (JSON Lines).
+ */
+public class JsonFileTrainingListener implements TrainingListener, AutoCloseable {
+    private final BufferedWriter writer;
+
+    /**
+     * Creates or truncates the output file.
+     *
+     * @param file the JSON Lines file
+     * @throws IOException if the file cannot be opened
+     */
+    public JsonFileTrainingListener(Path file) throws IOException {
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized void onStageCompleted(Stage stage, long nanos) {
+        write("{\"event\":\"stage\",\"stage\":\"" + stage + "\",\"nanos\":" + nanos + "}");
+    }
+
+    @Override
+    public synchronized void onProgress(MetricsSnapshot snapshot) {
+        write(toJson("progress", snapshot));
+    }
+
+    @Override
+    public synchronized void onEpochCompleted(MetricsSnapshot snapshot) {
+        write(toJson("epoch", snapshot));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    private void write(String line) {
+        try {
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String toJson(String event, MetricsSnapshot snapshot) {
+        StringBuilder json = new StringBuilder("{\"event\":\"").append(event).append('"');
+        json.append(",\"epoch\":").append(snapshot.epoch());
+        json.append(",\"elapsedNanos\":").append(snapshot.elapsedNanos());
+        json.append(",\"walks\":").append(snapshot.walks());
+        json.append(",\"walksPerSecond\":").append(number(snapshot.walksPerSecond()));
+        json.append(",\"generatedSamples\":").append(snapshot.generatedSamples());
+        json.append(",\"trainedSamples\":").append(snapshot.trainedSamples());
+        json.append(",\"samplesPerSecond\":").append(number(snapshot.samplesPerSecond()));
+        json.append(",\"averageLoss\":").append(number(snapshot.averageLoss()));
+        json.append(",\"learningRate\":").append(number(snapshot.learningRate()));
+        json.append(",\"heapUsedBytes\":").append(snapshot.heapUsedBytes());
+        json.append(",\"allocatedBytes\":").append(snapshot.allocatedBytes());
+        json.append(",\"stageNanos\":{");
+        appendEntries(json, snapshot.stageNanos());
+        json.append("},\"gauges\":{");
+        appendEntries(json, snapshot.gauges());
+        return json.append("}}").toString();
+    }
+
+    private static void appendEntries(StringBuilder json, Map<?, ? extends Number> entries) {
+        boolean first = true;
+        for (Map.Entry<?, ? extends Number> entry : entries.entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            json.append('"').append(entry.getKey()).append("\":").append(number(entry.getValue().doubleValue()));
+            first = false;
+        }
+    }
+
+    private static String number(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return "null";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.6g", value);
+    }
+}
@@ -0,0 +1,47 @@
+package RandomWalksEmbedding.Metrics;
+
+import RandomWalksEmbedding.Metrics.MetricsStrategy.TrainingListener;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Training listener that prints human-readable progress lines to a stream.
+ */
+public class LoggingTrainingListener implements TrainingListener {
+    private final PrintStream out;
+
+    /**
+     * @param out the stream receiving the log lines, e.g. {@code System.out}
+     */
+    public LoggingTrainingListener(PrintStream out) {
+        this.out = Objects.requireNonNull(out, "out");
+    }
+
+    @Override
+    public void onStageCompleted(Stage stage, long nanos) {
+        out.printf(Locale.ROOT, "%s stage completed in %.3f s%n", stage, nanos / 1e9);
+    }
+
+    @Override
+    public void onProgress(MetricsSnapshot snapshot) {
+        out.println("Epoch " + snapshot.epoch() + " progress: " + describe(snapshot));
+    }
+
+    @Override
+    public void onEpochCompleted(MetricsSnapshot snapshot) {
+        out.println("Epoch " + snapshot.epoch() + " completed. " + describe(snapshot));
+    }
+
+    private static String describe(MetricsSnapshot snapshot) {
+        return String.format(Locale.ROOT,
+                "samples=%d, samples/s=%.0f, loss=%.5f, lr=%.5f, heap=%d MiB%s",
+                snapshot.trainedSamples(),
+                snapshot.samplesPerSecond(),
+                snapshot.averageLoss(),
+                snapshot.learningRate(),
+                snapshot.heapUsedBytes() >> 20,
+                snapshot.gauges().isEmpty() ? "" : ", " + snapshot.gauges());
+    }
+}
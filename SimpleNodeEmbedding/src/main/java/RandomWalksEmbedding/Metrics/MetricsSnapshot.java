@@ -0,0 +1,37 @@
+package RandomWalksEmbedding.Metrics;
+
+import java.util.Map;
+
+/**
+ * Immutable point-in-time view of the training metrics.
+ *
+ * <p>Rates and the average loss cover the interval since the previous snapshot,
+ * counters are cumulative since the metrics were created.</p>
+ *
+ * @param epoch the current epoch, or -1 outside of training
+ * @param elapsedNanos wall time since the metrics were created
+ * @param walks total number of generated walks
+ * @param walksPerSecond walk throughput over the walk stage
+ * @param generatedSamples total number of generated training samples
+ * @param trainedSamples total number of processed training samples
+ * @param samplesPerSecond training throughput over the last interval
+ * @param averageLoss average log-loss over the last interval, NaN if no sample was trained
+ * @param learningRate the current learning rate
+ * @param heapUsedBytes heap in use at snapshot time
+ * @param allocatedBytes bytes allocated by live threads so far, or -1 if unsupported
+ * @param stageNanos accumulated wall time per stage
+ * @param gauges current values of the registered gauges
+ */
+public record MetricsSnapshot(int epoch,
+                              long elapsedNanos,
+                              long walks,
+                              double walksPerSecond,
+                              long generatedSamples,
+                              long trainedSamples,
+                              double samplesPerSecond,
+                              double averageLoss,
+                              double learningRate,
+                              long heapUsedBytes,
+                              long allocatedBytes,
+                              Map<Stage, Long> stageNanos,
+                              Map<String, Double> gauges) { }
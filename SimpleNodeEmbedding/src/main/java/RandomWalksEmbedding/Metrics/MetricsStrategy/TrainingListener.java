@@ -0,0 +1,34 @@
+package RandomWalksEmbedding.Metrics.MetricsStrategy;
+
+import RandomWalksEmbedding.Metrics.MetricsSnapshot;
+import RandomWalksEmbedding.Metrics.Stage;
+
+/**
+ * Callback interface notified about training progress.
+ *
+ * <p>Callbacks run on the thread that reports the event, so implementations
+ * should return quickly and hand heavy work off if needed.</p>
+ */
+public interface TrainingListener {
+    /**
+     * Called after a pipeline stage has finished.
+     *
+     * @param stage the finished stage
+     * @param nanos the wall time of this stage run
+     */
+    default void onStageCompleted(Stage stage, long nanos) { }
+
+    /**
+     * Called every configured number of trained samples.
+     *
+     * @param snapshot metrics at the time of the call
+     */
+    default void onProgress(MetricsSnapshot snapshot) { }
+
+    /**
+     * Called after every training epoch.
+     *
+     * @param snapshot metrics at the end of the epoch
+     */
+    default void onEpochCompleted(MetricsSnapshot snapshot) { }
+}
@@ -0,0 +1,10 @@
+package RandomWalksEmbedding.Metrics;
+
+/**
+ * Enumeration of the pipeline stages whose wall time is tracked.
+ */
+public enum Stage {
+    Walk,
+    Sampling,
+    Training
+}
@@ -0,0 +1,265 @@
+package RandomWalksEmbedding.Metrics;
+
+import RandomWalksEmbedding.Metrics.MetricsStrategy.TrainingListener;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Counters, gauges and stage timers shared by the stages of an embedding run.
+ *
+ * <p>Counters are striped {@link LongAdder}s so that concurrent producers do not
+ * contend on a single cache line. Hot loops are expected to accumulate locally
+ * and call the {@code record*} methods in batches, which keeps the
+ * instrumentation cost well below the per-sample work.</p>
+ */
+public class TrainingMetrics {
+    private final long progressInterval;
+    private final long startNanos;
+    private final LongAdder walks = new LongAdder();
+    private final LongAdder generatedSamples = new LongAdder();
+    private final LongAdder trainedSamples = new LongAdder();
+    private final DoubleAdder lossSum = new DoubleAdder();
+    private final Map<Stage, LongAdder> stageNanos = new EnumMap<>(Stage.class);
+    private final Map<String, DoubleSupplier> gauges = new ConcurrentHashMap<>();
+    private final List<TrainingListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile double learningRate;
+
+    private long lastSnapshotNanos;
+    private long lastTrainedSamples;
+    private double lastLossSum;
+
+    /**
+     * Creates metrics that report only at stage and epoch boundaries.
+     */
+    public TrainingMetrics() {
+        this(0);
+    }
+
+    /**
+     * Creates metrics that additionally report progress every {@code progressInterval} trained samples.
+     *
+     * @param progressInterval number of samples between progress reports, 0 to disable them
+     * @throws IllegalArgumentException if the interval is negative
+     */
+    public TrainingMetrics(long progressInterval) {
+        if (progressInterval < 0) {
+            throw new IllegalArgumentException("progressInterval must be non-negative");
+        }
+        this.progressInterval = progressInterval;
+        for (Stage stage : Stage.values()) {
+            stageNanos.put(stage, new LongAdder());
+        }
+        this.startNanos = System.nanoTime();
+        this.lastSnapshotNanos = startNanos;
+    }
+
+    /**
+     * Registers a listener for stage, progress and epoch events.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(TrainingListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    /**
+     * Registers a named gauge that is sampled on every snapshot.
+     *
+     * @param name the gauge name
+     * @param gauge supplier of the current value
+     */
+    public void registerGauge(String name, DoubleSupplier gauge) {
+        gauges.put(Objects.requireNonNull(name, "name"), Objects.requireNonNull(gauge, "gauge"));
+    }
+
+    /**
+     * Returns the number of trained samples between progress reports.
+     *
+     * @return the progress interval, 0 if disabled
+     */
+    public long progressInterval() {
+        return progressInterval;
+    }
+
+    /**
+     * Adds generated walks to the walk counter.
+     *
+     * @param count number of walks
+     */
+    public void recordWalks(long count) {
+        walks.add(count);
+    }
+
+    /**
+     * Adds generated samples to the sample counter.
+     *
+     * @param count number of samples
+     */
+    public void recordGeneratedSamples(long count) {
+        generatedSamples.add(count);
+    }
+
+    /**
+     * Adds a batch of trained samples and their summed log-loss.
+     *
+     * @param count number of trained samples
+     * @param loss the summed loss of these samples
+     */
+    public void recordTraining(long count, double loss) {
+        trainedSamples.add(count);
+        lossSum.add(loss);
+    }
+
+    /**
+     * Returns the number of trained samples recorded so far.
+     *
+     * @return the trained sample count
+     */
+    public long trainedSamples() {
+        return trainedSamples.sum();
+    }
+
+    /**
+     * Updates the learning rate gauge.
+     *
+     * @param learningRate the current learning rate
+     */
+    public void setLearningRate(double learningRate) {
+        this.learningRate = learningRate;
+    }
+
+    /**
+     * Adds wall time to a stage and notifies the listeners.
+     *
+     * @param stage the stage
+     * @param nanos the wall time of the stage run
+     */
+    public void recordStage(Stage stage, long nanos) {
+        stageNanos.get(stage).add(nanos);
+        for (TrainingListener listener : listeners) {
+            listener.onStageCompleted(stage, nanos);
+        }
+    }
+
+    /**
+     * Runs a stage and records its wall time.
+     *
+     * @param stage the stage
+     * @param task the stage body
+     * @param <T> the result type
+     * @return the result of the task
+     */
+    public <T> T time(Stage stage, Supplier<T> task) {
+        long start = System.nanoTime();
+        T result = task.get();
+        recordStage(stage, System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Runs a stage without a result and records its wall time.
+     *
+     * @param stage the stage
+     * @param task the stage body
+     */
+    public void time(Stage stage, Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        recordStage(stage, System.nanoTime() - start);
+    }
+
+    /**
+     * Publishes a progress snapshot to the listeners.
+     *
+     * @param epoch the current epoch
+     */
+    public void publishProgress(int epoch) {
+        MetricsSnapshot snapshot = snapshot(epoch);
+        for (TrainingListener listener : listeners) {
+            listener.onProgress(snapshot);
+        }
+    }
+
+    /**
+     * Publishes an end-of-epoch snapshot to the listeners.
+     *
+     * @param epoch the finished epoch
+     */
+    public void publishEpoch(int epoch) {
+        MetricsSnapshot snapshot = snapshot(epoch);
+        for (TrainingListener listener : listeners) {
+            listener.onEpochCompleted(snapshot);
+        }
+    }
+
+    /**
+     * Takes a snapshot outside of training.
+     *
+     * @return the current metrics
+     */
+    public MetricsSnapshot snapshot() {
+        return snapshot(-1);
+    }
+
+    private synchronized MetricsSnapshot snapshot(int epoch) {
+        long now = System.nanoTime();
+        long trained = trainedSamples.sum();
+        double loss = lossSum.sum();
+        long intervalSamples = trained - lastTrainedSamples;
+        double intervalSeconds = (now - lastSnapshotNanos) / 1e9;
+
+        Map<Stage, Long> stages = new EnumMap<>(Stage.class);
+        stageNanos.forEach((stage, nanos) -> stages.put(stage, nanos.sum()));
+        long walkNanos = stages.get(Stage.Walk) > 0 ? stages.get(Stage.Walk) : now - startNanos;
+
+        Map<String, Double> gaugeValues = new TreeMap<>();
+        gauges.forEach((name, gauge) -> gaugeValues.put(name, gauge.getAsDouble()));
+
+        Runtime runtime = Runtime.getRuntime();
+        MetricsSnapshot snapshot = new MetricsSnapshot(epoch,
+                now - startNanos,
+                walks.sum(),
+                walks.sum() / Math.max(1e-9, walkNanos / 1e9),
+                generatedSamples.sum(),
+                trained,
+                intervalSeconds > 0 ? intervalSamples / intervalSeconds : 0.0,
+                intervalSamples > 0 ? (loss - lastLossSum) / intervalSamples : Double.NaN,
+                learningRate,
+                runtime.totalMemory() - runtime.freeMemory(),
+                allocatedBytes(),
+                Collections.unmodifiableMap(stages),
+                Collections.unmodifiableMap(gaugeValues));
+
+        lastSnapshotNanos = now;
+        lastTrainedSamples = trained;
+        lastLossSum = loss;
+        return snapshot;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean sunThreads && sunThreads.isThreadAllocatedMemoryEnabled()) {
+            long total = 0;
+            for (long allocated : sunThreads.getThreadAllocatedBytes(sunThreads.getAllThreadIds())) {
+                if (allocated > 0) {
+                    total += allocated;
+                }
+            }
+            return total;
+        }
+        return -1;
+    }
+}
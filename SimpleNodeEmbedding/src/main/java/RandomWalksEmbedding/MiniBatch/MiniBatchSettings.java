@@ -0,0 +1,26 @@
+package RandomWalksEmbedding.MiniBatch;
+
+/**
+ * Parameters of a {@link MiniBatchTrainer} run.
+ *
+ * @param batchSize number of positive pairs per batch
+ * @param negatives number of negative vertices drawn per batch and shared by all its pairs
+ * @param numOfEpochs number of passes over the positive pairs
+ * @param seed seed for controlling randomness and ensuring reproducible negative draws
+ */
+public record MiniBatchSettings(int batchSize,
+                                int negatives,
+                                int numOfEpochs,
+                                long seed) {
+    public MiniBatchSettings {
+        if (batchSize < 1 || numOfEpochs < 1) {
+            throw new IllegalArgumentException("batchSize and numOfEpochs must be positive");
+        }
+        if (negatives < 0) {
+            throw new IllegalArgumentException("negatives must be non-negative");
+        }
+        if (seed < 1) {
+            throw new IllegalArgumentException("The value seed have to be positive integer");
+        }
+    }
+}
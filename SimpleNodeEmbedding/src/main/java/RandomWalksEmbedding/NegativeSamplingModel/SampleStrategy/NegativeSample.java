@@ -1,24 +1,67 @@
 package RandomWalksEmbedding.NegativeSamplingModel.SampleStrategy;
 
 import RandomWalksEmbedding.SampleDataset.Pair;
+import RandomWalksEmbedding.SampleDataset.SampleBuffer;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Interface for generating negative samples from a random walk
  * using a sliding window mechanism.
  */
 public interface NegativeSample {
+    /**
+     * Appends negative (target, context) pairs for every position of a walk,
+     * excluding the target itself and its window contexts.
+     *
+     * @param walk array holding the walk as node indices
+     * @param begin index of the first node of the walk
+     * @param end index after the last node of the walk
+     * @param windowSize size of the sliding window whose nodes are excluded
+     * @param numOfNegativeSamples number of negatives to sample per position
+     * @param random source of the draws
+     * @param samples buffer receiving the pairs, labelled negative
+     */
+    void addNegativePairs(int[] walk, int begin, int end, int windowSize, int numOfNegativeSamples, Random random, SampleBuffer samples);
+
     /**
      * Samples K negative (target, context) pairs for the given target,
      * excluding any forbidden nodes (e.g., target itself + window contexts).
      *
+     * <p>The target and the forbidden nodes are laid out as one walk whose window covers
+     * all of them, and only the pairs drawn for the target are kept. The draws come from
+     * {@link ThreadLocalRandom}, so they are not reproducible.</p>
+     *
      * @param target the target node
      * @param forbidden nodes that must not be sampled as negatives
      * @param numOfNegativeSamples number of negatives to sample
      *
      * @return list of negative pairs (target, negativeContext)
+     * @deprecated boxes every node and pair and cannot be seeded; use
+     * {@link #addNegativePairs(int[], int, int, int, int, Random, SampleBuffer)}
      */
-    List<Pair> generatePositivePairs(int target, Set<Integer> forbidden, int numOfNegativeSamples);
+    @Deprecated
+    default List<Pair> generatePositivePairs(int target, Set<Integer> forbidden, int numOfNegativeSamples) {
+        int[] walk = new int[forbidden.size() + 1];
+        int length = 0;
+        walk[length++] = target;
+        for (int node : forbidden) {
+            if (node != target) {
+                walk[length++] = node;
+            }
+        }
+        SampleBuffer samples = new SampleBuffer();
+        addNegativePairs(walk, 0, length, length, numOfNegativeSamples, ThreadLocalRandom.current(), samples);
+        List<Pair> pairs = new ArrayList<>(numOfNegativeSamples);
+        for (int i = 0; i < samples.size(); i++) {
+            if (samples.targets().get(i) == target) {
+                pairs.add(new Pair(target, samples.contexts().get(i)));
+            }
+        }
+        return pairs;
+    }
 }
@@ -2,45 +2,84 @@ package RandomWalksEmbedding.NegativeSamplingModel;
 
 import Core.VertexIndexMapping;
 import RandomWalksEmbedding.NegativeSamplingModel.SampleStrategy.NegativeSample;
-import RandomWalksEmbedding.SampleDataset.Pair;
+import RandomWalksEmbedding.SampleDataset.SampleBuffer;
 
-import java.util.*;
+import java.util.Objects;
+import java.util.Random;
 
+/**
+ * Draws negative samples uniformly from the graph nodes.
+ *
+ * <p>A draw that hits the target or one of its window contexts is rejected. The
+ * rejections are capped at {@code MAX_NEGATIVE_ATTEMPTS} draws per requested
+ * negative, so a position whose window covers nearly the whole graph gets fewer
+ * negatives instead of looping forever.</p>
+ */
 public class UniformNegativeSample<V> implements NegativeSample {
-    private final Random random;
+    private static final int MAX_NEGATIVE_ATTEMPTS = 100;
+
     private final int graphSize;
 
     /**
      * Creates a generator for negative samples based on uniform distribution of the graph nodes.
      *
      * @param mapper Mapping between vertices and integer indices
-     *
-     * @throws IllegalArgumentException if sequences is empty
      */
     public UniformNegativeSample(VertexIndexMapping<V> mapper) {
-        VertexIndexMapping<V> mapping = Objects.requireNonNull(mapper, "mapper cannot be null");
-        this.graphSize = mapping.getVertexToIndex().size();
-        this.random = new Random();
+        this(Objects.requireNonNull(mapper, "mapper cannot be null").getVertexToIndex().size());
     }
 
     /**
-     * Samples K negative (target, context) pairs for the given target,
-     * excluding any forbidden nodes (e.g., target itself + window contexts).
+     * Creates a generator for negative samples based on uniform distribution of the graph nodes.
      *
-     * @param target               the target node
-     * @param forbidden            nodes that must not be sampled as negatives
-     * @param numOfNegativeSamples number of negatives to sample
-     * @return list of negative pairs (target, negativeContext)
+     * @param graphSize number of indexed vertices
+     * @throws IllegalArgumentException if graphSize is not positive
+     */
+    public UniformNegativeSample(int graphSize) {
+        if (graphSize < 1) {
+            throw new IllegalArgumentException("graphSize must be positive");
+        }
+        this.graphSize = graphSize;
+    }
+
+    /**
+     * Appends negative (target, context) pairs for every position of a walk,
+     * excluding the target itself and its window contexts.
+     *
+     * @param walk                 array holding the walk as node indices
+     * @param begin                index of the first node of the walk
+     * @param end                  index after the last node of the walk
+     * @param windowSize           size of the sliding window whose nodes are excluded
+     * @param numOfNegativeSamples number of negatives to sample per position
+     * @param random               source of the draws
+     * @param samples              buffer receiving the pairs, labelled negative
      */
     @Override
-    public List<Pair> generatePositivePairs(int target, Set<Integer> forbidden, int numOfNegativeSamples) {
-        List<Pair> negativePairs = new ArrayList<>();
-        while (negativePairs.size() < numOfNegativeSamples) {
-            int potentialNegativeSampleNode = random.nextInt(this.graphSize);
-            if (!forbidden.contains(potentialNegativeSampleNode)) {
-                negativePairs.add(new Pair(target, potentialNegativeSampleNode));
+    public void addNegativePairs(int[] walk, int begin, int end, int windowSize, int numOfNegativeSamples, Random random, SampleBuffer samples) {
+        for (int i = begin; i < end; i++) {
+            int windowBegin = Math.max(begin, i - windowSize);
+            int windowEnd = Math.min(end - 1, i + windowSize);
+            int drawn = 0;
+            for (int attempt = 0; drawn < numOfNegativeSamples && attempt < numOfNegativeSamples * MAX_NEGATIVE_ATTEMPTS; attempt++) {
+                int candidate = random.nextInt(graphSize);
+                if (!inWindow(walk, windowBegin, windowEnd, candidate)) {
+                    samples.add(walk[i], candidate, SampleBuffer.NEGATIVE);
+                    drawn++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a node is the target or one of its contexts within a sliding window
+     * of a walk, which excludes it from negative sampling for that target.
+     */
+    private static boolean inWindow(int[] walk, int windowBegin, int windowEnd, int node) {
+        for (int j = windowBegin; j <= windowEnd; j++) {
+            if (walk[j] == node) {
+                return true;
             }
         }
-        return negativePairs;
+        return false;
     }
 }
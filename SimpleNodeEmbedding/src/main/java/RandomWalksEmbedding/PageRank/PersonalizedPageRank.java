@@ -0,0 +1,271 @@
+package RandomWalksEmbedding.PageRank;
+
+import Core.PrimitiveCollections.IntArrayList;
+import Core.PrimitiveCollections.IntLongHashMap;
+import Core.Seeds;
+import Core.VertexIndexMapping;
+import RandomWalksEmbedding.WalkModel.DeepWalk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monte-Carlo estimator of personalized PageRank (random walk with restart) on top of
+ * the {@link DeepWalk} walk machinery.
+ *
+ * <p>Every walk starts at a source vertex and continues for a geometric number of
+ * uniform steps, i.e. it stops after each step with the restart probability; a walk
+ * that reaches a vertex without outgoing edges stops early, which equals restarting
+ * at the source. The score of a vertex is its share of all visits, which converges to
+ * its PageRank personalized on the sources. The standard error of a score {@code p}
+ * is roughly {@code sqrt(p / (restartProbability * numOfWalks))}, so the walk budget
+ * trades accuracy for latency: scores well above {@code 1 / numOfWalks} are reliable.</p>
+ *
+ * <p>Walks are split into chunks seeded by their index and claimed by the threads of a
+ * pool owned by this engine; each task counts visits in its own primitive map and the
+ * maps are merged at the end, so results depend only on the seed, not on the number of
+ * threads. Queries that fit in one chunk run on the calling thread. Queries may be
+ * issued concurrently.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class PersonalizedPageRank<V> implements AutoCloseable {
+    private static final int WALKS_PER_CHUNK = 1024;
+
+    private final DeepWalk<V> deepWalk;
+    private final VertexIndexMapping<V> mapper;
+    private final double restartProbability;
+    private final double logContinue;
+    private final int threads;
+    private final ExecutorService pool;
+
+    /**
+     * Creates an engine.
+     *
+     * @param deepWalk the walk strategy over the indexed graph
+     * @param mapper the mapping used by the walk strategy
+     * @param restartProbability probability of stopping after each step, usually 0.15
+     * @param threads number of walk threads
+     * @throws IllegalArgumentException if the restart probability is not in (0, 1) or threads is not positive
+     */
+    public PersonalizedPageRank(DeepWalk<V> deepWalk, VertexIndexMapping<V> mapper, double restartProbability, int threads) {
+        this.deepWalk = Objects.requireNonNull(deepWalk, "deepWalk");
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        if (!(restartProbability > 0 && restartProbability < 1)) {
+            throw new IllegalArgumentException("restartProbability must be in (0, 1)");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        this.restartProbability = restartProbability;
+        this.logContinue = Math.log(1 - restartProbability);
+        this.threads = threads;
+        AtomicInteger threadId = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "ppr-" + threadId.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Estimates the top-k PageRank scores personalized on a single vertex.
+     *
+     * @param source the source vertex
+     * @param k number of vertices to return
+     * @param numOfWalks walk budget
+     * @param seed seed for controlling randomness and ensuring reproducible scores
+     * @return at most k vertices by descending score, ties broken by vertex index; the source is included
+     */
+    public List<RankedVertex<V>> topK(V source, int k, long numOfWalks, long seed) {
+        return topK(List.of(source), k, numOfWalks, seed);
+    }
+
+    /**
+     * Estimates the top-k PageRank scores personalized uniformly on a set of vertices.
+     * Walks are assigned to the sources in turn.
+     *
+     * @param sources the source vertices
+     * @param k number of vertices to return
+     * @param numOfWalks walk budget
+     * @param seed seed for controlling randomness and ensuring reproducible scores
+     * @return at most k vertices by descending score, ties broken by vertex index; sources are included
+     * @throws IllegalArgumentException if there are no sources, or k or numOfWalks is not positive
+     */
+    public List<RankedVertex<V>> topK(Collection<V> sources, int k, long numOfWalks, long seed) {
+        Objects.requireNonNull(sources, "sources");
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("At least one source vertex is needed");
+        }
+        if (k < 1 || numOfWalks < 1) {
+            throw new IllegalArgumentException("k and numOfWalks must be positive");
+        }
+        int[] starts = new int[sources.size()];
+        int next = 0;
+        for (V source : sources) {
+            starts[next++] = mapper.indexForVertex(source);
+        }
+
+        IntLongHashMap visits = countVisits(starts, numOfWalks, seed);
+        long[] totalVisits = new long[1];
+        visits.forEach((vertex, count) -> totalVisits[0] += count);
+        return select(visits, k, totalVisits[0]);
+    }
+
+    private IntLongHashMap countVisits(int[] starts, long numOfWalks, long seed) {
+        long numOfChunks = (numOfWalks + WALKS_PER_CHUNK - 1) / WALKS_PER_CHUNK;
+        AtomicLong nextChunk = new AtomicLong();
+        int numOfTasks = (int) Math.min(threads, numOfChunks);
+        if (numOfTasks == 1) {
+            return walkChunks(starts, numOfWalks, numOfChunks, nextChunk, seed);
+        }
+        List<Future<IntLongHashMap>> tasks = new ArrayList<>(numOfTasks);
+        for (int t = 0; t < numOfTasks; t++) {
+            tasks.add(pool.submit(() -> walkChunks(starts, numOfWalks, numOfChunks, nextChunk, seed)));
+        }
+        try {
+            IntLongHashMap merged = tasks.get(0).get();
+            for (int t = 1; t < numOfTasks; t++) {
+                IntLongHashMap counts = tasks.get(t).get();
+                if (counts.size() > merged.size()) {
+                    counts.addAll(merged);
+                    merged = counts;
+                } else {
+                    merged.addAll(counts);
+                }
+            }
+            return merged;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Personalized PageRank walk failed", e.getCause());
+        } catch (InterruptedException e) {
+            tasks.forEach(task -> task.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Personalized PageRank query interrupted", e);
+        }
+    }
+
+    private IntLongHashMap walkChunks(int[] starts, long numOfWalks, long numOfChunks, AtomicLong nextChunk, long seed) {
+        IntLongHashMap visits = new IntLongHashMap();
+        IntArrayList path = new IntArrayList();
+        for (long chunk = nextChunk.getAndIncrement(); chunk < numOfChunks; chunk = nextChunk.getAndIncrement()) {
+            Random random = new Random(Seeds.forIndex(seed, chunk));
+            long first = chunk * WALKS_PER_CHUNK;
+            long last = Math.min(numOfWalks, first + WALKS_PER_CHUNK);
+            for (long walk = first; walk < last; walk++) {
+                path.clear();
+                deepWalk.walk(starts[(int) (walk % starts.length)], walkLength(random), random, path);
+                int[] nodes = path.elements();
+                for (int i = 0; i < path.size(); i++) {
+                    visits.addTo(nodes[i], 1);
+                }
+            }
+        }
+        return visits;
+    }
+
+    /**
+     * Draws the number of steps before the first restart, P(steps = l) = (1 - alpha)^l * alpha.
+     */
+    private int walkLength(Random random) {
+        double steps = Math.floor(Math.log(1 - random.nextDouble()) / logContinue);
+        return (int) Math.min(steps, Integer.MAX_VALUE - 1);
+    }
+
+    private List<RankedVertex<V>> select(IntLongHashMap visits, int k, long totalVisits) {
+        // min-heap of the best k (count, vertex) pairs, worst at the root
+        int limit = Math.min(k, visits.size());
+        int[] heapVertices = new int[limit];
+        long[] heapCounts = new long[limit];
+        int[] heapSize = new int[1];
+        visits.forEach((vertex, count) -> {
+            if (heapSize[0] < limit) {
+                int position = heapSize[0]++;
+                heapVertices[position] = vertex;
+                heapCounts[position] = count;
+                siftUp(heapVertices, heapCounts, position);
+            } else if (better(count, vertex, heapCounts[0], heapVertices[0])) {
+                heapVertices[0] = vertex;
+                heapCounts[0] = count;
+                siftDown(heapVertices, heapCounts, 0, limit);
+            }
+        });
+
+        // the heap yields the worst remaining vertex first
+        List<RankedVertex<V>> ranked = new ArrayList<>(limit);
+        for (int size = limit; size > 0; size--) {
+            ranked.add(new RankedVertex<>(mapper.getVertex(heapVertices[0]), (double) heapCounts[0] / totalVisits));
+            heapVertices[0] = heapVertices[size - 1];
+            heapCounts[0] = heapCounts[size - 1];
+            siftDown(heapVertices, heapCounts, 0, size - 1);
+        }
+        Collections.reverse(ranked);
+        return Collections.unmodifiableList(ranked);
+    }
+
+    private static boolean better(long count1, int vertex1, long count2, int vertex2) {
+        return count1 > count2 || (count1 == count2 && vertex1 < vertex2);
+    }
+
+    private static void siftUp(int[] vertices, long[] counts, int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!better(counts[parent], vertices[parent], counts[position], vertices[position])) {
+                return;
+            }
+            swap(vertices, counts, parent, position);
+            position = parent;
+        }
+    }
+
+    private static void siftDown(int[] vertices, long[] counts, int position, int size) {
+        while (true) {
+            int worst = position;
+            for (int child = 2 * position + 1; child <= 2 * position + 2 && child < size; child++) {
+                if (better(counts[worst], vertices[worst], counts[child], vertices[child])) {
+                    worst = child;
+                }
+            }
+            if (worst == position) {
+                return;
+            }
+            swap(vertices, counts, worst, position);
+            position = worst;
+        }
+    }
+
+    private static void swap(int[] vertices, long[] counts, int i, int j) {
+        int vertex = vertices[i];
+        vertices[i] = vertices[j];
+        vertices[j] = vertex;
+        long count = counts[i];
+        counts[i] = counts[j];
+        counts[j] = count;
+    }
+
+    /**
+     * Returns the restart probability.
+     *
+     * @return the probability of stopping after each step
+     */
+    public double getRestartProbability() {
+        return restartProbability;
+    }
+
+    /**
+     * Stops the walk threads.
+     */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
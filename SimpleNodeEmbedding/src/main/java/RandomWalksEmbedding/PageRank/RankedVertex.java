@@ -0,0 +1,10 @@
+package RandomWalksEmbedding.PageRank;
+
+/**
+ * A vertex with its estimated personalized PageRank score.
+ *
+ * @param vertex the vertex
+ * @param score the estimated probability of the restart walk being at the vertex
+ * @param <V> the vertex type
+ */
+public record RankedVertex<V>(V vertex, double score) { }
@@ -0,0 +1,38 @@
+package RandomWalksEmbedding.Pipeline;
+
+/**
+ * Thread and queue sizing of a {@link PipelinedTrainer}.
+ *
+ * @param walkerThreads number of walk generation threads
+ * @param samplerThreads number of pair extraction and negative sampling threads
+ * @param trainerThreads number of SGD threads
+ * @param queueCapacity capacity, in batches, of each bounded queue between stages
+ * @param walksPerBatch number of walks grouped into one batch
+ */
+public record PipelineSettings(int walkerThreads,
+                               int samplerThreads,
+                               int trainerThreads,
+                               int queueCapacity,
+                               int walksPerBatch) {
+    public PipelineSettings {
+        if (walkerThreads < 1 || samplerThreads < 1 || trainerThreads < 1) {
+            throw new IllegalArgumentException("every stage needs at least one thread");
+        }
+        if (queueCapacity < 1 || walksPerBatch < 1) {
+            throw new IllegalArgumentException("queueCapacity and walksPerBatch must be positive");
+        }
+    }
+
+    /**
+     * Splits the available cores between the stages, favouring training, which is usually the slowest.
+     *
+     * @return default settings for this machine
+     */
+    public static PipelineSettings defaults() {
+        int cores = Math.max(3, Runtime.getRuntime().availableProcessors());
+        int walkers = Math.max(1, cores / 6);
+        int samplers = Math.max(1, cores / 3);
+        int trainers = Math.max(1, cores - walkers - samplers);
+        return new PipelineSettings(walkers, samplers, trainers, 64, 64);
+    }
+}
@@ -0,0 +1,322 @@
+package RandomWalksEmbedding.Pipeline;
+
+import Core.PrimitiveCollections.IntArrayList;
+import Core.Seeds;
+import RandomWalksEmbedding.ContextModel.ContextStrategy.ContextWindow;
+import RandomWalksEmbedding.ContextModel.FrequentNodeSubsampling;
+import RandomWalksEmbedding.ContextModel.SymmetricSlidingWindow;
+import RandomWalksEmbedding.LearningModel.SkipGram;
+import RandomWalksEmbedding.LearningModel.TrainingObjective;
+import RandomWalksEmbedding.Metrics.Stage;
+import RandomWalksEmbedding.Metrics.TrainingMetrics;
+import RandomWalksEmbedding.NegativeSamplingModel.SampleStrategy.NegativeSample;
+import RandomWalksEmbedding.NegativeSamplingModel.UniformNegativeSample;
+import RandomWalksEmbedding.SampleDataset.PositiveAndNegativeSamples;
+import RandomWalksEmbedding.SampleDataset.SampleBuffer;
+import RandomWalksEmbedding.WalkModel.DeepWalk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs walk generation, pair extraction with negative sampling, and SGD training
+ * concurrently, connected by bounded queues of primitive batches.
+ *
+ * <p>Walkers claim walk batches from a shared counter and generate them with a
+ * seed derived from the batch index, so the walk and sample corpus does not depend
+ * on the thread counts. Full queues block their producers, which bounds memory to
+ * {@code 2 * queueCapacity} batches and lets the slowest stage set the pace; the
+ * end-to-end wall time then approaches that of the slowest stage instead of the
+ * sum of all three. Trainers update the {@link SkipGram} rows lock-free.</p>
+ *
+ * <p>Frequent nodes are subsampled in the sampler stage like in
+ * {@link PositiveAndNegativeSamples}. The keep probabilities need the visit counts
+ * of the whole corpus, so a subsampling run first regenerates the seeded walks once
+ * to count them; walking is the cheapest stage, and its time for this pass is
+ * included in the walk stage. Only the negative sampling objective is supported:
+ * hierarchical softmax builds its Huffman tree from the context frequencies of a
+ * dataset that does not exist before the samples stream through.</p>
+ *
+ * <p>Every sample is trained once as it streams through; use more walks per vertex
+ * instead of epochs. All stages are CPU bound, so they run on platform threads.
+ * Queue depths are exposed as the gauges {@code pipeline.walkQueueDepth} and
+ * {@code pipeline.sampleQueueDepth}, and the summed busy time of each stage's
+ * workers is reported through {@link TrainingMetrics#recordStage}; a stage whose
+ * input queue is usually empty needs fewer threads, one whose input queue is
+ * usually full needs more.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class PipelinedTrainer<V> {
+    private static final WalkBatch END_OF_WALKS = new WalkBatch(-1, new int[0], new int[] {0});
+    private static final SampleBatch END_OF_SAMPLES = new SampleBatch(new int[0], new int[0], new byte[0], 0);
+
+    private final DeepWalk<V> deepWalk;
+    private final SkipGram skipGram;
+    private final int numOfVertices;
+    private final int walksPerVertex;
+    private final int hops;
+    private final int windowSize;
+    private final long seed;
+    private final double subsamplingThreshold;
+    private final PipelineSettings settings;
+    private final TrainingMetrics metrics;
+    private final ContextWindow contextWindow = new SymmetricSlidingWindow();
+    private final NegativeSample negativeSample;
+
+    /**
+     * Creates a pipelined trainer.
+     *
+     * @param deepWalk the walk strategy
+     * @param skipGram the model to train; it also provides the metrics
+     * @param numOfVertices number of indexed vertices
+     * @param walksPerVertex number of walks started from every vertex
+     * @param hops number of transitions per walk
+     * @param windowSize size of the sliding window, also the number of negatives per position
+     * @param seed seed for controlling randomness and ensuring reproducible walks and samples
+     * @param settings thread and queue sizing
+     * @throws IllegalArgumentException if the model does not use negative sampling
+     */
+    public PipelinedTrainer(DeepWalk<V> deepWalk, SkipGram skipGram, int numOfVertices, int walksPerVertex, int hops, int windowSize, long seed, PipelineSettings settings) {
+        this(deepWalk, skipGram, numOfVertices, walksPerVertex, hops, windowSize, seed, 0, settings);
+    }
+
+    /**
+     * Creates a pipelined trainer that subsamples frequent nodes before extracting pairs.
+     *
+     * @param deepWalk the walk strategy
+     * @param skipGram the model to train; it also provides the metrics
+     * @param numOfVertices number of indexed vertices
+     * @param walksPerVertex number of walks started from every vertex
+     * @param hops number of transitions per walk
+     * @param windowSize size of the sliding window, also the number of negatives per position
+     * @param seed seed for controlling randomness and ensuring reproducible walks and samples
+     * @param subsamplingThreshold word2vec subsampling threshold t, or 0 to keep every occurrence
+     * @param settings thread and queue sizing
+     * @throws IllegalArgumentException if the model does not use negative sampling or the threshold is negative
+     * @see FrequentNodeSubsampling
+     */
+    public PipelinedTrainer(DeepWalk<V> deepWalk, SkipGram skipGram, int numOfVertices, int walksPerVertex, int hops, int windowSize, long seed, double subsamplingThreshold, PipelineSettings settings) {
+        this.deepWalk = Objects.requireNonNull(deepWalk, "deepWalk");
+        this.skipGram = Objects.requireNonNull(skipGram, "skipGram");
+        this.settings = Objects.requireNonNull(settings, "settings");
+        if (skipGram.getObjective() != TrainingObjective.NegativeSampling) {
+            throw new IllegalArgumentException("Pipelined training requires the negative sampling objective");
+        }
+        if (numOfVertices < 1 || walksPerVertex < 1 || hops < 1) {
+            throw new IllegalArgumentException("numOfVertices, walksPerVertex and hops must be positive");
+        }
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be greater than 0");
+        }
+        this.numOfVertices = numOfVertices;
+        this.walksPerVertex = walksPerVertex;
+        this.hops = hops;
+        this.windowSize = windowSize;
+        this.seed = seed;
+        if (!(subsamplingThreshold >= 0)) {
+            throw new IllegalArgumentException("subsamplingThreshold must be non-negative");
+        }
+        this.subsamplingThreshold = subsamplingThreshold;
+        this.metrics = skipGram.getMetrics();
+        this.negativeSample = new UniformNegativeSample<V>(numOfVertices);
+    }
+
+    /**
+     * Runs the pipeline until every walk has been generated, sampled and trained.
+     *
+     * @throws IllegalStateException if a stage fails or the calling thread is interrupted
+     */
+    public void run() {
+        BlockingQueue<WalkBatch> walkQueue = new ArrayBlockingQueue<>(settings.queueCapacity());
+        BlockingQueue<SampleBatch> sampleQueue = new ArrayBlockingQueue<>(settings.queueCapacity());
+        metrics.registerGauge("pipeline.walkQueueDepth", walkQueue::size);
+        metrics.registerGauge("pipeline.sampleQueueDepth", sampleQueue::size);
+        metrics.setLearningRate(skipGram.getLearningRate());
+
+        long totalWalks = (long) numOfVertices * walksPerVertex;
+        long numOfBatches = (totalWalks + settings.walksPerBatch() - 1) / settings.walksPerBatch();
+        AtomicLong nextBatch = new AtomicLong();
+        AtomicInteger activeWalkers = new AtomicInteger(settings.walkerThreads());
+        AtomicInteger activeSamplers = new AtomicInteger(settings.samplerThreads());
+        AtomicLong nextProgress = new AtomicLong(metrics.progressInterval());
+        LongAdder walkNanos = new LongAdder();
+        LongAdder samplingNanos = new LongAdder();
+        LongAdder trainingNanos = new LongAdder();
+
+        int numOfThreads = settings.walkerThreads() + settings.samplerThreads() + settings.trainerThreads();
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(numOfThreads, task -> {
+            Thread thread = new Thread(task, "pipeline-" + threadId.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<Void> workers = new ExecutorCompletionService<>(pool);
+        try {
+            FrequentNodeSubsampling subsampling = subsamplingThreshold > 0
+                    ? new FrequentNodeSubsampling(countVisits(pool, numOfBatches, totalWalks, walkNanos), subsamplingThreshold)
+                    : null;
+            for (int i = 0; i < settings.walkerThreads(); i++) {
+                workers.submit(() -> {
+                    for (long batch = nextBatch.getAndIncrement(); batch < numOfBatches; batch = nextBatch.getAndIncrement()) {
+                        long start = System.nanoTime();
+                        WalkBatch walks = generateWalks(batch, totalWalks);
+                        walkNanos.add(System.nanoTime() - start);
+                        metrics.recordWalks(walks.walkCount());
+                        walkQueue.put(walks);
+                    }
+                    if (activeWalkers.decrementAndGet() == 0) {
+                        for (int s = 0; s < settings.samplerThreads(); s++) {
+                            walkQueue.put(END_OF_WALKS);
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (int i = 0; i < settings.samplerThreads(); i++) {
+                workers.submit(() -> {
+                    for (WalkBatch walks = walkQueue.take(); walks != END_OF_WALKS; walks = walkQueue.take()) {
+                        long start = System.nanoTime();
+                        SampleBatch samples = generateSamples(walks, subsampling);
+                        samplingNanos.add(System.nanoTime() - start);
+                        metrics.recordGeneratedSamples(samples.size());
+                        sampleQueue.put(samples);
+                    }
+                    if (activeSamplers.decrementAndGet() == 0) {
+                        for (int t = 0; t < settings.trainerThreads(); t++) {
+                            sampleQueue.put(END_OF_SAMPLES);
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (int i = 0; i < settings.trainerThreads(); i++) {
+                workers.submit(() -> {
+                    float[] gradient = new float[skipGram.getEmbeddingMatrix().dimension()];
+                    for (SampleBatch samples = sampleQueue.take(); samples != END_OF_SAMPLES; samples = sampleQueue.take()) {
+                        long start = System.nanoTime();
+                        double loss = 0;
+                        for (int s = 0; s < samples.size(); s++) {
+                            loss += skipGram.trainPair(samples.targets()[s], samples.contexts()[s], samples.labels()[s] == 1, gradient);
+                        }
+                        trainingNanos.add(System.nanoTime() - start);
+                        metrics.recordTraining(samples.size(), loss);
+                        reportProgress(nextProgress);
+                    }
+                    return null;
+                });
+            }
+
+            for (int i = 0; i < numOfThreads; i++) {
+                workers.take().get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Pipeline stage failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pipeline interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        metrics.recordStage(Stage.Walk, walkNanos.sum());
+        metrics.recordStage(Stage.Sampling, samplingNanos.sum());
+        metrics.recordStage(Stage.Training, trainingNanos.sum());
+        metrics.publishEpoch(0);
+    }
+
+    private void reportProgress(AtomicLong nextProgress) {
+        long interval = metrics.progressInterval();
+        if (interval <= 0) {
+            return;
+        }
+        long due = nextProgress.get();
+        // the snapshot sum is only read once a report may be due, and only one trainer wins the report
+        if (metrics.trainedSamples() >= due && nextProgress.compareAndSet(due, due + interval)) {
+            metrics.publishProgress(0);
+        }
+    }
+
+    private WalkBatch generateWalks(long batch, long totalWalks) {
+        long first = batch * settings.walksPerBatch();
+        int count = (int) Math.min(settings.walksPerBatch(), totalWalks - first);
+        Random random = new Random(batchSeed(batch, 0));
+        IntArrayList nodes = new IntArrayList(count * (hops + 1));
+        int[] offsets = new int[count + 1];
+        for (int w = 0; w < count; w++) {
+            int start = (int) ((first + w) % numOfVertices);
+            offsets[w + 1] = offsets[w] + deepWalk.walk(start, hops, random, nodes);
+        }
+        return new WalkBatch(batch, nodes.toArray(), offsets);
+    }
+
+    /**
+     * Counts the node visits of the whole walk corpus by regenerating every batch with
+     * its seed on the walker threads, without keeping the walks.
+     */
+    private long[] countVisits(ExecutorService pool, long numOfBatches, long totalWalks, LongAdder walkNanos) throws InterruptedException, ExecutionException {
+        AtomicLong nextBatch = new AtomicLong();
+        List<Future<long[]>> counters = new ArrayList<>(settings.walkerThreads());
+        for (int i = 0; i < settings.walkerThreads(); i++) {
+            counters.add(pool.submit(() -> {
+                long[] visitCounts = new long[numOfVertices];
+                for (long batch = nextBatch.getAndIncrement(); batch < numOfBatches; batch = nextBatch.getAndIncrement()) {
+                    long start = System.nanoTime();
+                    WalkBatch walks = generateWalks(batch, totalWalks);
+                    for (int node : walks.nodes()) {
+                        visitCounts[node]++;
+                    }
+                    walkNanos.add(System.nanoTime() - start);
+                }
+                return visitCounts;
+            }));
+        }
+        long[] visitCounts = new long[numOfVertices];
+        for (Future<long[]> counter : counters) {
+            long[] partial = counter.get();
+            for (int node = 0; node < numOfVertices; node++) {
+                visitCounts[node] += partial[node];
+            }
+        }
+        return visitCounts;
+    }
+
+    private SampleBatch generateSamples(WalkBatch walks, FrequentNodeSubsampling subsampling) {
+        Random random = new Random(batchSeed(walks.batchIndex(), 1));
+        SampleBuffer samples = new SampleBuffer();
+        IntArrayList kept = new IntArrayList();
+        for (int w = 0; w < walks.walkCount(); w++) {
+            int begin = walks.offsets()[w];
+            int end = walks.offsets()[w + 1];
+            if (subsampling == null) {
+                PositiveAndNegativeSamples.sampleWalk(walks.nodes(), begin, end, windowSize, contextWindow, negativeSample, random, samples);
+            } else {
+                kept.clear();
+                subsampling.subsample(walks.nodes(), begin, end, random, kept);
+                PositiveAndNegativeSamples.sampleWalk(kept.elements(), 0, kept.size(), windowSize, contextWindow, negativeSample, random, samples);
+            }
+        }
+        byte[] labels = new byte[samples.size()];
+        for (int s = 0; s < labels.length; s++) {
+            labels[s] = (byte) samples.labels().get(s);
+        }
+        return new SampleBatch(samples.targets().toArray(), samples.contexts().toArray(), labels, samples.size());
+    }
+
+    private long batchSeed(long batch, int stage) {
+        return Seeds.forIndex(seed, 2 * batch + stage);
+    }
+}
@@ -0,0 +1,11 @@
+package RandomWalksEmbedding.Pipeline;
+
+/**
+ * Batch of labelled (target, context) samples stored in parallel primitive arrays.
+ *
+ * @param targets the target vertex indices
+ * @param contexts the context vertex indices
+ * @param labels 1 for positive and 0 for negative samples
+ * @param size number of valid entries
+ */
+public record SampleBatch(int[] targets, int[] contexts, byte[] labels, int size) { }
@@ -0,0 +1,21 @@
+package RandomWalksEmbedding.Pipeline;
+
+/**
+ * Batch of walks stored back to back in a primitive array.
+ *
+ * <p>Walk {@code i} occupies {@code nodes[offsets[i] .. offsets[i + 1])}.</p>
+ *
+ * @param batchIndex position of the batch in the walk corpus, used to derive per-batch seeds
+ * @param nodes the concatenated walk node indices
+ * @param offsets start offset of every walk, of length {@code walkCount + 1}
+ */
+public record WalkBatch(long batchIndex, int[] nodes, int[] offsets) {
+    /**
+     * Returns the number of walks in the batch.
+     *
+     * @return the walk count
+     */
+    public int walkCount() {
+        return offsets.length - 1;
+    }
+}
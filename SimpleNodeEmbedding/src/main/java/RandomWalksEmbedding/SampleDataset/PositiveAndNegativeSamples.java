@@ -1,24 +1,43 @@
 package RandomWalksEmbedding.SampleDataset;
 
+import Core.PrimitiveCollections.IntArrayList;
+import Core.Seeds;
 import Core.VertexIndexMapping;
+import RandomWalksEmbedding.ContextModel.ContextStrategy.ContextWindow;
+import RandomWalksEmbedding.ContextModel.FrequentNodeSubsampling;
 import RandomWalksEmbedding.ContextModel.SymmetricSlidingWindow;
+import RandomWalksEmbedding.NegativeSamplingModel.SampleStrategy.NegativeSample;
 import RandomWalksEmbedding.NegativeSamplingModel.UniformNegativeSample;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /**
  * Generates positive and negative training samples from random walk sequences
  * over an immutable graph structure for node embedding algorithms.
  *
+ * <p>Walks are processed in fixed ranges on a fork-join pool. Every walk draws its
+ * subsampling and negatives from its own random stream, seeded from the constructor
+ * seed and the walk index, and every range writes into its own primitive buffers,
+ * which are concatenated in walk order. The dataset is therefore the same for any
+ * parallelism.</p>
+ *
  * @param <V> The vertex (node) type of the graph
  */
 public class PositiveAndNegativeSamples<V> {
+    private static final int WALKS_PER_RANGE = 256;
+    private static final String POSITIVE_LABEL = "1";
+    private static final String NEGATIVE_LABEL = "0";
+
     private final VertexIndexMapping<V> mapper;
     private final ArrayList<ArrayList<Integer>> sequences;
     private final int windowSize;
     private final boolean allowSampleDuplicate;
-    private final Random random;
+    private final long randomSeed;
+    private final double subsamplingThreshold;
+    private final int parallelism;
 
     /**
      * Creates a generator for positive and negative samples based on graph walks.
@@ -32,9 +51,44 @@ public class PositiveAndNegativeSamples<V> {
      * @throws IllegalArgumentException if sequences is empty
      */
     public PositiveAndNegativeSamples(VertexIndexMapping<V> mapper, ArrayList<ArrayList<Integer>> sequences, int windowSize, boolean allowSampleDuplicate, long randomSeed) {
+        this(mapper, sequences, windowSize, allowSampleDuplicate, randomSeed, 0);
+    }
+
+    /**
+     * Creates a generator that subsamples frequent nodes before extracting pairs.
+     *
+     * @param mapper Mapping between vertices and integer indices
+     * @param sequences Random walk sequences used for positive sampling
+     * @param windowSize size of the sliding windows
+     * @param allowSampleDuplicate deduplicate positive-negative samples
+     * @param randomSeed seed for controlling randomness and ensuring reproducible sampling
+     * @param subsamplingThreshold word2vec subsampling threshold t, or 0 to keep every occurrence
+     *
+     * @throws IllegalArgumentException if sequences is empty or the threshold is negative
+     * @see FrequentNodeSubsampling
+     */
+    public PositiveAndNegativeSamples(VertexIndexMapping<V> mapper, ArrayList<ArrayList<Integer>> sequences, int windowSize, boolean allowSampleDuplicate, long randomSeed, double subsamplingThreshold) {
+        this(mapper, sequences, windowSize, allowSampleDuplicate, randomSeed, subsamplingThreshold, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a generator that uses the given number of threads; the generated dataset
+     * does not depend on it.
+     *
+     * @param mapper Mapping between vertices and integer indices
+     * @param sequences Random walk sequences used for positive sampling
+     * @param windowSize size of the sliding windows
+     * @param allowSampleDuplicate deduplicate positive-negative samples
+     * @param randomSeed seed for controlling randomness and ensuring reproducible sampling
+     * @param subsamplingThreshold word2vec subsampling threshold t, or 0 to keep every occurrence
+     * @param parallelism number of threads generating samples
+     *
+     * @throws IllegalArgumentException if sequences is empty, the threshold is negative or parallelism is not positive
+     */
+    public PositiveAndNegativeSamples(VertexIndexMapping<V> mapper, ArrayList<ArrayList<Integer>> sequences, int windowSize, boolean allowSampleDuplicate, long randomSeed, double subsamplingThreshold, int parallelism) {
         this.mapper = Objects.requireNonNull(mapper, "mapper cannot be null");
 
-        this.random = new Random(randomSeed);
+        this.randomSeed = randomSeed;
 
         Objects.requireNonNull(sequences, "sequences cannot be null");
         if (sequences.isEmpty()) {
@@ -46,83 +100,136 @@ public class PositiveAndNegativeSamples<V> {
         this.windowSize = windowSize;
         this.sequences = new ArrayList<>(sequences);
         this.allowSampleDuplicate = allowSampleDuplicate;
+        if (!(subsamplingThreshold >= 0)) {
+            throw new IllegalArgumentException("subsamplingThreshold must be non-negative");
+        }
+        this.subsamplingThreshold = subsamplingThreshold;
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.parallelism = parallelism;
     }
 
     /**
-     * Generates a fallback set of negative samples by randomly selecting vertices
-     * from the graph when no explicit negative samples are provided.
-     *
-     * <p>
-     * The method shuffles all vertices and selects up to 10% of them,
-     * with a maximum cap of 20 vertices, to form the negative sample set.
-     * </p>
+     * Generates shuffled positive and negative samples from random walks using graph-aware negative sampling.
      *
-     * @return A randomly selected set of vertices used as negative samples
+     * @return unmodifiable list of SampleDataset
      */
-    private Set<Integer> fallBackRandomNegativeSamples() {
-        ArrayList<Integer> randomSamples = new ArrayList<>(mapper.getVertexToIndex().values());
-        Collections.shuffle(randomSamples, new Random());
-
-        return randomSamples
-                .stream()
-                .skip(randomSamples.size() - (int) Math.min(randomSamples.size() * 0.10, 20))
-                .collect(Collectors.toSet());
+    public List<Sample> generatePositiveNegativeSampleDataset() {
+        return generateSampleDataset(true);
     }
 
     /**
-     * Generates shuffled positive and negative samples from random walks using graph-aware negative sampling.
+     * Generates shuffled positive samples only, for objectives such as hierarchical softmax
+     * that do not learn from explicit negatives.
      *
      * @return unmodifiable list of SampleDataset
      */
-    public List<Sample> generatePositiveNegativeSampleDataset() {
-        List<Sample> datasets = new ArrayList<>();
-        // move these two to constructor
-        SymmetricSlidingWindow symmetricSlidingWindow = new SymmetricSlidingWindow();
-        UniformNegativeSample<V> uniformNegativeSample = new UniformNegativeSample<>(this.mapper);
-        //
-        sequences.removeIf(walk -> walk.size() < 2);
-        for (ArrayList<Integer> walk : sequences) {
-            List<Pair> positivePairs = symmetricSlidingWindow.generatePositivePairs(walk, this.windowSize);
-            for (Pair positivePair : positivePairs) {
-                String label = "1";
-                Sample positiveSample = new Sample(positivePair.v1(), positivePair.v2(), label);
-                datasets.add(positiveSample);
+    public List<Sample> generatePositiveSampleDataset() {
+        return generateSampleDataset(false);
+    }
+
+    private List<Sample> generateSampleDataset(boolean withNegatives) {
+        ContextWindow contextWindow = new SymmetricSlidingWindow();
+        NegativeSample negativeSample = withNegatives ? new UniformNegativeSample<>(this.mapper) : null;
+        FrequentNodeSubsampling subsampling = subsamplingThreshold > 0
+                ? new FrequentNodeSubsampling(sequences, mapper.getVertexToIndex().size(), subsamplingThreshold)
+                : null;
+
+        int numOfRanges = (sequences.size() + WALKS_PER_RANGE - 1) / WALKS_PER_RANGE;
+        IntStream ranges = IntStream.range(0, numOfRanges);
+        SampleBuffer[] buffers;
+        if (parallelism == 1) {
+            buffers = ranges.mapToObj(range -> generateRange(range, subsampling, contextWindow, negativeSample))
+                    .toArray(SampleBuffer[]::new);
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                buffers = pool.submit(() -> ranges.parallel()
+                        .mapToObj(range -> generateRange(range, subsampling, contextWindow, negativeSample))
+                        .toArray(SampleBuffer[]::new)).get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Sample generation failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Sample generation interrupted", e);
+            } finally {
+                pool.shutdown();
             }
-            for (var target : walk) {
-                List<Pair> negativePairs = uniformNegativeSample
-                        .generatePositivePairs(target,
-                        new HashSet<>(forbiddingNegatives(target, walk, this.windowSize)),
-                        this.windowSize);
-                for (Pair negativePair : negativePairs) {
-                    String label = "0";
-                    Sample negativeSample = new Sample(negativePair.v1(), negativePair.v2(), label);
-                    datasets.add(negativeSample);
-                }
+        }
+
+        int size = 0;
+        for (SampleBuffer buffer : buffers) {
+            size += buffer.size();
+        }
+        List<Sample> datasets = new ArrayList<>(size);
+        for (SampleBuffer buffer : buffers) {
+            int[] targets = buffer.targets().elements();
+            int[] contexts = buffer.contexts().elements();
+            int[] labels = buffer.labels().elements();
+            for (int i = 0; i < buffer.size(); i++) {
+                datasets.add(new Sample(targets[i], contexts[i], labels[i] == SampleBuffer.POSITIVE ? POSITIVE_LABEL : NEGATIVE_LABEL));
             }
         }
         if (!allowSampleDuplicate) {
             datasets = new ArrayList<>(new LinkedHashSet<>(datasets));
         }
-        Collections.shuffle(datasets, random);
+        Collections.shuffle(datasets, new Random(randomSeed));
         return datasets;
     }
 
     /**
-     * Computes the set of nodes that must be excluded from negative sampling
-     * for a given target within a sliding window of a walk.
-     *
-     * @return nodes forbidden for negative sampling of a target.
+     * Extracts the samples of one range of walks with {@link #sampleWalk}, drawing the
+     * subsampling and negatives of every walk from its own random stream.
      */
-    private List<Integer> forbiddingNegatives(int target, List<Integer> walk, int windowSize) {
-        List<Integer> forbidding = new ArrayList<>();
-        int i = walk.indexOf(target);
-        forbidding.add(target);
-        for (int j = Math.max(0, i - windowSize); j <= Math.min(walk.size() - 1, i + windowSize); j++) {
-            if (i != j) {
-                forbidding.add(walk.get(j));
+    private SampleBuffer generateRange(int range, FrequentNodeSubsampling subsampling, ContextWindow contextWindow, NegativeSample negativeSample) {
+        SampleBuffer buffer = new SampleBuffer();
+        IntArrayList kept = new IntArrayList();
+        int first = range * WALKS_PER_RANGE;
+        int last = Math.min(sequences.size(), first + WALKS_PER_RANGE);
+        for (int walkIndex = first; walkIndex < last; walkIndex++) {
+            ArrayList<Integer> sequence = sequences.get(walkIndex);
+            if (sequence.size() < 2) {
+                continue;
+            }
+            Random random = new Random(Seeds.forIndex(randomSeed, walkIndex));
+            int[] walk = new int[sequence.size()];
+            for (int i = 0; i < walk.length; i++) {
+                walk[i] = sequence.get(i);
+            }
+            if (subsampling == null) {
+                sampleWalk(walk, 0, walk.length, windowSize, contextWindow, negativeSample, random, buffer);
+            } else {
+                kept.clear();
+                subsampling.subsample(walk, 0, walk.length, random, kept);
+                sampleWalk(kept.elements(), 0, kept.size(), windowSize, contextWindow, negativeSample, random, buffer);
             }
         }
-        return forbidding;
+        return buffer;
     }
-}
 
+    /**
+     * Extracts the samples of one walk: all positive pairs of the context window, then
+     * {@code windowSize} negatives per position that avoid the position's own window.
+     * Both this generator and the pipelined trainer sample through this method, so they
+     * train on the same distribution.
+     *
+     * @param walk array holding the walk as node indices
+     * @param begin index of the first node of the walk
+     * @param end index after the last node of the walk
+     * @param windowSize size of the sliding window, also the number of negatives per position
+     * @param contextWindow the positive pair strategy
+     * @param negativeSample the negative strategy, or null for positive samples only
+     * @param random source of the negative draws
+     * @param samples buffer receiving the samples
+     */
+    public static void sampleWalk(int[] walk, int begin, int end, int windowSize, ContextWindow contextWindow, NegativeSample negativeSample, Random random, SampleBuffer samples) {
+        if (end - begin < 2) {
+            return;
+        }
+        contextWindow.addPositivePairs(walk, begin, end, windowSize, samples);
+        if (negativeSample != null) {
+            negativeSample.addNegativePairs(walk, begin, end, windowSize, windowSize, random, samples);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package RandomWalksEmbedding.SampleDataset;
+
+import Core.PrimitiveCollections.IntArrayList;
+
+/**
+ * Growable buffer of labelled (target, context) samples stored in parallel primitive lists.
+ */
+public class SampleBuffer {
+    public static final int POSITIVE = 1;
+    public static final int NEGATIVE = 0;
+
+    private final IntArrayList targets = new IntArrayList();
+    private final IntArrayList contexts = new IntArrayList();
+    private final IntArrayList labels = new IntArrayList();
+
+    /**
+     * Appends one sample.
+     *
+     * @param target the target vertex index
+     * @param context the context vertex index
+     * @param label {@link #POSITIVE} or {@link #NEGATIVE}
+     */
+    public void add(int target, int context, int label) {
+        targets.add(target);
+        contexts.add(context);
+        labels.add(label);
+    }
+
+    /**
+     * @return number of samples in the buffer
+     */
+    public int size() {
+        return targets.size();
+    }
+
+    /**
+     * @return the target vertex indices; the list is backed by the buffer
+     */
+    public IntArrayList targets() {
+        return targets;
+    }
+
+    /**
+     * @return the context vertex indices; the list is backed by the buffer
+     */
+    public IntArrayList contexts() {
+        return contexts;
+    }
+
+    /**
+     * @return the labels; the list is backed by the buffer
+     */
+    public IntArrayList labels() {
+        return labels;
+    }
+}
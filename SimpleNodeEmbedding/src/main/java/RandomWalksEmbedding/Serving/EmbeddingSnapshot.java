@@ -0,0 +1,239 @@
+package RandomWalksEmbedding.Serving;
+
+import Core.VertexIndexMapping;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingAllocator;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingMatrix;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingTable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable, versioned copy of an embedding model for concurrent reads while training
+ * goes on.
+ *
+ * <p>Rows are copied once on creation, together with their norms, into storage that
+ * nothing else references, so readers need no synchronization and every query of a
+ * snapshot sees the same version. Lookups by vertex go through the immutable
+ * {@link VertexIndexMapping} the snapshot was taken with. Snapshots are published and
+ * reference-counted by a {@link SnapshotRegistry}; their storage is closed once the
+ * registry has replaced them and the last {@link SnapshotLease} is closed.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class EmbeddingSnapshot<V> implements EmbeddingTable {
+    // far enough below zero that readers backing out of a released snapshot never reach it again
+    private static final int RELEASED = Integer.MIN_VALUE / 2;
+
+    private final long version;
+    private final VertexIndexMapping<V> mapper;
+    private final EmbeddingMatrix rows;
+    private final float[] norms;
+    // the registry holds one reference until the snapshot is replaced
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private EmbeddingSnapshot(long version, VertexIndexMapping<V> mapper, EmbeddingMatrix rows, float[] norms) {
+        this.version = version;
+        this.mapper = mapper;
+        this.rows = rows;
+        this.norms = norms;
+    }
+
+    /**
+     * Copies a model into a heap snapshot.
+     *
+     * @param version the version number of the snapshot
+     * @param mapper the mapping the model rows follow
+     * @param source the model, e.g. a live training matrix
+     * @param <V> the vertex type
+     * @return the snapshot
+     * @throws IllegalArgumentException if the model does not have one row per mapped vertex
+     */
+    public static <V> EmbeddingSnapshot<V> copyOf(long version, VertexIndexMapping<V> mapper, EmbeddingTable source) {
+        return copyOf(version, mapper, source, EmbeddingAllocator.heap());
+    }
+
+    /**
+     * Copies a model into a snapshot whose storage comes from the given allocator.
+     *
+     * @param version the version number of the snapshot
+     * @param mapper the mapping the model rows follow
+     * @param source the model, e.g. a live training matrix
+     * @param allocator allocator of the snapshot storage
+     * @param <V> the vertex type
+     * @return the snapshot
+     * @throws IllegalArgumentException if the model does not have one row per mapped vertex
+     */
+    public static <V> EmbeddingSnapshot<V> copyOf(long version, VertexIndexMapping<V> mapper, EmbeddingTable source, EmbeddingAllocator allocator) {
+        Objects.requireNonNull(mapper, "mapper");
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(allocator, "allocator");
+        if (source.rows() != mapper.size()) {
+            throw new IllegalArgumentException("The model has " + source.rows() + " rows for " + mapper.size() + " vertices");
+        }
+        int dimension = source.dimension();
+        EmbeddingMatrix copy = allocator.allocate(source.rows(), dimension);
+        float[] norms = new float[source.rows()];
+        for (int row = 0; row < source.rows(); row++) {
+            double squares = 0;
+            for (int column = 0; column < dimension; column++) {
+                float value = source.get(row, column);
+                copy.set(row, column, value);
+                squares += (double) value * value;
+            }
+            norms[row] = (float) Math.sqrt(squares);
+        }
+        return new EmbeddingSnapshot<>(version, mapper, copy, norms);
+    }
+
+    /**
+     * Returns the version number of the snapshot.
+     *
+     * @return the version
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Returns the mapping between vertices and rows of this snapshot.
+     *
+     * @return the vertex index mapping
+     */
+    public VertexIndexMapping<V> getMapper() {
+        return mapper;
+    }
+
+    /**
+     * Returns whether the snapshot has an embedding for a vertex.
+     *
+     * @param vertex the vertex
+     * @return true if the vertex is mapped
+     */
+    public boolean contains(V vertex) {
+        return mapper.contains(vertex);
+    }
+
+    /**
+     * Returns a copy of the embedding of a vertex.
+     *
+     * @param vertex the vertex
+     * @return the embedding vector
+     */
+    public float[] embedding(V vertex) {
+        int row = mapper.indexForVertex(vertex);
+        float[] embedding = new float[dimension()];
+        for (int column = 0; column < embedding.length; column++) {
+            embedding[column] = rows.get(row, column);
+        }
+        return embedding;
+    }
+
+    /**
+     * Returns the cosine similarity of two vertices.
+     *
+     * @param vertex1 the first vertex
+     * @param vertex2 the second vertex
+     * @return the cosine similarity
+     */
+    public double similarity(V vertex1, V vertex2) {
+        return cosine(mapper.indexForVertex(vertex1), mapper.indexForVertex(vertex2));
+    }
+
+    /**
+     * Returns the k vertices most cosine-similar to a vertex, excluding the vertex itself.
+     *
+     * @param vertex the query vertex
+     * @param k number of neighbors
+     * @return the neighbors, most similar first
+     */
+    public List<SimilarVertex<V>> mostSimilar(V vertex, int k) {
+        int query = mapper.indexForVertex(vertex);
+        int[] neighbors = topK(query, k);
+        List<SimilarVertex<V>> similar = new ArrayList<>(neighbors.length);
+        for (int neighbor : neighbors) {
+            similar.add(new SimilarVertex<>(mapper.getVertex(neighbor), cosine(query, neighbor)));
+        }
+        return similar;
+    }
+
+    @Override
+    public int rows() {
+        return rows.rows();
+    }
+
+    @Override
+    public int dimension() {
+        return rows.dimension();
+    }
+
+    @Override
+    public float get(int row, int column) {
+        return rows.get(row, column);
+    }
+
+    @Override
+    public double dot(int row1, int row2) {
+        return rows.dot(row1, row2);
+    }
+
+    @Override
+    public double norm(int row) {
+        return norms[row];
+    }
+
+    @Override
+    public long memoryBytes() {
+        return rows.memoryBytes() + (long) norms.length * Float.BYTES;
+    }
+
+    /**
+     * Adds a reader reference unless the snapshot has already been released. This is a
+     * single atomic increment; a reader that finds the snapshot drained or released backs
+     * its increment out again.
+     *
+     * @return false if the snapshot was released
+     */
+    boolean tryRetain() {
+        if (references.getAndIncrement() > 0) {
+            return true;
+        }
+        release();
+        return false;
+    }
+
+    /**
+     * Drops a reference; whoever drops the last one marks the snapshot released and closes
+     * the storage.
+     */
+    void release() {
+        if (references.decrementAndGet() == 0 && references.compareAndSet(0, RELEASED)) {
+            close();
+        }
+    }
+
+    private void close() {
+        if (rows instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (Exception e) {
+                throw new IllegalStateException("Closing snapshot " + version + " failed", e);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the snapshot has been replaced and all its readers have finished.
+     *
+     * @return true once the storage has been released
+     */
+    public boolean isReleased() {
+        return references.get() < 0;
+    }
+}
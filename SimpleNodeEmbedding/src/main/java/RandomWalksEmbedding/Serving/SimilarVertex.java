@@ -0,0 +1,10 @@
+package RandomWalksEmbedding.Serving;
+
+/**
+ * A vertex with its cosine similarity to a query vertex.
+ *
+ * @param vertex the vertex
+ * @param similarity the cosine similarity to the query
+ * @param <V> the vertex type
+ */
+public record SimilarVertex<V>(V vertex, double similarity) { }
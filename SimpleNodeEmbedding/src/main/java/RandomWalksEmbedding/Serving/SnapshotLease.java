@@ -0,0 +1,41 @@
+package RandomWalksEmbedding.Serving;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A reader's hold on one {@link EmbeddingSnapshot}; the snapshot is not released while
+ * the lease is open. Leases are meant for one query or request and must be closed.
+ *
+ * @param <V> the vertex type
+ */
+public final class SnapshotLease<V> implements AutoCloseable {
+    private final EmbeddingSnapshot<V> snapshot;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    SnapshotLease(EmbeddingSnapshot<V> snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Returns the leased snapshot.
+     *
+     * @return the snapshot
+     * @throws IllegalStateException if the lease has been closed
+     */
+    public EmbeddingSnapshot<V> snapshot() {
+        if (closed.get()) {
+            throw new IllegalStateException("The lease has been closed");
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the lease; closing it more than once has no further effect.
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            snapshot.release();
+        }
+    }
+}
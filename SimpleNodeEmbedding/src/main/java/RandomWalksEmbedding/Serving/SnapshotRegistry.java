@@ -0,0 +1,123 @@
+package RandomWalksEmbedding.Serving;
+
+import Core.VertexIndexMapping;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingAllocator;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingTable;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Publishes the current {@link EmbeddingSnapshot} to concurrent readers and swaps in
+ * new versions without blocking them.
+ *
+ * <p>A publisher copies the finished model into a new snapshot and replaces the
+ * current one with an atomic reference swap; the replaced snapshot is released once
+ * the last reader that acquired it closes its lease. Acquiring a lease is one reference
+ * read and one atomic increment of the snapshot's reader count, which never fails
+ * because of other readers; it is only repeated if that snapshot was replaced and fully
+ * drained in between. Readers never wait for the publisher and the publisher never
+ * waits for readers. Concurrent readers still share the count's cache line.</p>
+ *
+ * <p>Typical use is to {@link #publish} after {@code SkipGram.trainModel()} or
+ * {@code IncrementalEmbedding.update()} returns, and to serve every request inside
+ * {@link #read} or a try-with-resources {@link #acquire()} block.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class SnapshotRegistry<V> implements AutoCloseable {
+    private final AtomicReference<EmbeddingSnapshot<V>> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final EmbeddingAllocator allocator;
+
+    /**
+     * Creates an empty registry whose snapshots are stored on the heap.
+     */
+    public SnapshotRegistry() {
+        this(EmbeddingAllocator.heap());
+    }
+
+    /**
+     * Creates an empty registry whose snapshots are stored by the given allocator.
+     *
+     * @param allocator allocator of the snapshot storage
+     */
+    public SnapshotRegistry(EmbeddingAllocator allocator) {
+        this.allocator = Objects.requireNonNull(allocator, "allocator");
+    }
+
+    /**
+     * Copies a model into a new snapshot and makes it the current one. The model must
+     * not be written during the copy, e.g. training has returned.
+     *
+     * @param mapper the mapping the model rows follow
+     * @param model the model to publish
+     * @return the published snapshot
+     * @throws IllegalArgumentException if the model does not have one row per mapped vertex
+     */
+    public EmbeddingSnapshot<V> publish(VertexIndexMapping<V> mapper, EmbeddingTable model) {
+        EmbeddingSnapshot<V> snapshot = EmbeddingSnapshot.copyOf(versions.incrementAndGet(), mapper, model, allocator);
+        EmbeddingSnapshot<V> previous = current.getAndSet(snapshot);
+        if (previous != null) {
+            previous.release();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Leases the current snapshot; it stays valid until the lease is closed, even if a
+     * newer version is published meanwhile.
+     *
+     * @return a lease on the current snapshot
+     * @throws IllegalStateException if nothing has been published or the registry is closed
+     */
+    public SnapshotLease<V> acquire() {
+        while (true) {
+            EmbeddingSnapshot<V> snapshot = current.get();
+            if (snapshot == null) {
+                throw new IllegalStateException("No embedding snapshot has been published");
+            }
+            if (snapshot.tryRetain()) {
+                return new SnapshotLease<>(snapshot);
+            }
+        }
+    }
+
+    /**
+     * Runs a query against the current snapshot under a lease.
+     *
+     * @param query the query
+     * @param <R> the result type
+     * @return the query result
+     * @throws IllegalStateException if nothing has been published or the registry is closed
+     */
+    public <R> R read(Function<EmbeddingSnapshot<V>, R> query) {
+        Objects.requireNonNull(query, "query");
+        try (SnapshotLease<V> lease = acquire()) {
+            return query.apply(lease.snapshot());
+        }
+    }
+
+    /**
+     * Returns the version of the current snapshot.
+     *
+     * @return the current version, or 0 if nothing is published
+     */
+    public long currentVersion() {
+        EmbeddingSnapshot<V> snapshot = current.get();
+        return snapshot == null ? 0 : snapshot.version();
+    }
+
+    /**
+     * Withdraws the current snapshot; it is released once its open leases are closed.
+     */
+    @Override
+    public void close() {
+        EmbeddingSnapshot<V> previous = current.getAndSet(null);
+        if (previous != null) {
+            previous.release();
+        }
+    }
+}
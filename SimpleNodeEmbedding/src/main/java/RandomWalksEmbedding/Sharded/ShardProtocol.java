@@ -0,0 +1,48 @@
+package RandomWalksEmbedding.Sharded;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Wire format between {@link ParameterServer} and {@link ShardWorker}.
+ *
+ * <pre>
+ * worker -> server  MAGIC, shard
+ * server -> worker  rows, dimension, rounds
+ * every round:
+ *   worker -> server  requestedRows, then requestedRows row indices
+ *   server -> worker  requestedRows * dimension floats of those rows of the global model
+ *   worker -> server  samples, loss, trainingNanos, touchedRows, then per touched row: row, dimension floats of its delta
+ * </pre>
+ */
+final class ShardProtocol {
+    static final int MAGIC = 0x53484152;
+    private static final int CHUNK_FLOATS = 1 << 14;
+
+    private ShardProtocol() {
+    }
+
+    static void writeFloats(DataOutputStream out, float[] values, int offset, int length, ByteBuffer scratch) throws IOException {
+        for (int start = offset; start < offset + length; start += CHUNK_FLOATS) {
+            int count = Math.min(CHUNK_FLOATS, offset + length - start);
+            scratch.clear();
+            scratch.asFloatBuffer().put(values, start, count);
+            out.write(scratch.array(), 0, count * Float.BYTES);
+        }
+    }
+
+    static void readFloats(DataInputStream in, float[] values, int offset, int length, ByteBuffer scratch) throws IOException {
+        for (int start = offset; start < offset + length; start += CHUNK_FLOATS) {
+            int count = Math.min(CHUNK_FLOATS, offset + length - start);
+            in.readFully(scratch.array(), 0, count * Float.BYTES);
+            scratch.clear();
+            scratch.asFloatBuffer().get(values, start, count);
+        }
+    }
+
+    static ByteBuffer scratchBuffer() {
+        return ByteBuffer.allocate(CHUNK_FLOATS * Float.BYTES);
+    }
+}
@@ -0,0 +1,81 @@
+package RandomWalksEmbedding.Sharded;
+
+/**
+ * Parameters of a sharded training run; every worker process receives the same settings.
+ *
+ * @param numOfShards number of worker processes
+ * @param walksPerVertex number of walks started from every vertex of a shard
+ * @param hops number of transitions per walk
+ * @param windowSize size of the sliding window
+ * @param embeddingDimension number of components per embedding
+ * @param numOfEpochs number of passes of every worker over its samples
+ * @param syncsPerEpoch number of model synchronizations per epoch
+ * @param learningRate SGD step size
+ * @param seed seed for controlling randomness; every shard derives its own seed from it
+ */
+public record ShardSettings(int numOfShards,
+                            int walksPerVertex,
+                            int hops,
+                            int windowSize,
+                            int embeddingDimension,
+                            int numOfEpochs,
+                            int syncsPerEpoch,
+                            double learningRate,
+                            long seed) {
+    public ShardSettings {
+        if (numOfShards < 1) {
+            throw new IllegalArgumentException("numOfShards must be positive");
+        }
+        if (walksPerVertex < 1 || hops < 1 || windowSize < 1 || embeddingDimension < 1) {
+            throw new IllegalArgumentException("walksPerVertex, hops, windowSize and embeddingDimension must be positive");
+        }
+        if (numOfEpochs < 1 || syncsPerEpoch < 1) {
+            throw new IllegalArgumentException("numOfEpochs and syncsPerEpoch must be positive");
+        }
+        if (!(learningRate > 0)) {
+            throw new IllegalArgumentException("learningRate must be positive");
+        }
+        if (seed < 1) {
+            throw new IllegalArgumentException("The value seed have to be positive integer");
+        }
+    }
+
+    /**
+     * Returns the number of synchronization rounds of the run.
+     *
+     * @return {@code numOfEpochs * syncsPerEpoch}
+     */
+    public int rounds() {
+        return numOfEpochs * syncsPerEpoch;
+    }
+
+    String[] toArguments() {
+        return new String[] {
+                Integer.toString(numOfShards),
+                Integer.toString(walksPerVertex),
+                Integer.toString(hops),
+                Integer.toString(windowSize),
+                Integer.toString(embeddingDimension),
+                Integer.toString(numOfEpochs),
+                Integer.toString(syncsPerEpoch),
+                Double.toString(learningRate),
+                Long.toString(seed)
+        };
+    }
+
+    static ShardSettings fromArguments(String[] args, int offset) {
+        return new ShardSettings(Integer.parseInt(args[offset]),
+                Integer.parseInt(args[offset + 1]),
+                Integer.parseInt(args[offset + 2]),
+                Integer.parseInt(args[offset + 3]),
+                Integer.parseInt(args[offset + 4]),
+                Integer.parseInt(args[offset + 5]),
+                Integer.parseInt(args[offset + 6]),
+                Double.parseDouble(args[offset + 7]),
+                Long.parseLong(args[offset + 8]));
+    }
+
+    static int argumentCount() {
+        return 9;
+    }
+}
@@ -0,0 +1,242 @@
+package RandomWalksEmbedding.Sharded;
+
+import Core.EdgeListReader;
+import Core.GraphType;
+import Core.ImmutableGraphData;
+import Core.PrimitiveCollections.IntArrayList;
+import Core.VertexIndexMapping;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingMatrix;
+import RandomWalksEmbedding.LearningModel.SkipGram;
+import RandomWalksEmbedding.Metrics.TrainingMetrics;
+import RandomWalksEmbedding.SampleDataset.PositiveAndNegativeSamples;
+import RandomWalksEmbedding.SampleDataset.Sample;
+import RandomWalksEmbedding.WalkModel.DeepWalk;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One shard of a sharded training run, normally running in its own JVM.
+ *
+ * <p>The worker walks only from the vertices of its shard, builds the samples of those
+ * walks and, every round, trains a slice of them. The rows a slice reads, its targets,
+ * contexts and negatives, are computed once; every round the worker requests just those
+ * rows from the {@link ParameterServer}, trains on them and sends back the deltas of the
+ * ones it changed. Samples are kept as primitive arrays between rounds. Contexts and
+ * negatives may be any vertex, so every worker holds the whole graph and a full-size
+ * local model, but only the requested rows are transferred and compared.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class ShardWorker<V> {
+    private final int shard;
+    private final ShardSettings settings;
+    private final int numOfVertices;
+    private final int[] targets;
+    private final int[] contexts;
+    private final boolean[] positives;
+    private final int[][] sliceRows;
+
+    /**
+     * Generates the walks and samples of one shard.
+     *
+     * @param graph the whole graph
+     * @param mapper the vertex index mapping, identical in every worker
+     * @param shard the shard of this worker
+     * @param settings the run settings
+     */
+    public ShardWorker(ImmutableGraphData<V> graph, VertexIndexMapping<V> mapper, int shard, ShardSettings settings) {
+        Objects.requireNonNull(graph, "graph");
+        Objects.requireNonNull(mapper, "mapper");
+        this.settings = Objects.requireNonNull(settings, "settings");
+        this.shard = shard;
+        this.numOfVertices = mapper.size();
+        int[] vertices = new VertexPartition<>(mapper, settings.numOfShards()).vertices(shard);
+
+        long shardSeed = settings.seed() + shard;
+        DeepWalk<V> deepWalk = new DeepWalk<>(graph, mapper, shardSeed);
+        ArrayList<ArrayList<Integer>> walks = new ArrayList<>(vertices.length * settings.walksPerVertex());
+        for (int walk = 0; walk < settings.walksPerVertex(); walk++) {
+            for (int vertex : vertices) {
+                walks.add(deepWalk.generateWalk(mapper.getVertex(vertex), settings.hops()));
+            }
+        }
+        List<Sample> samples = new PositiveAndNegativeSamples<>(mapper, walks, settings.windowSize(), false, shardSeed)
+                .generatePositiveNegativeSampleDataset();
+
+        this.targets = new int[samples.size()];
+        this.contexts = new int[samples.size()];
+        this.positives = new boolean[samples.size()];
+        for (int i = 0; i < samples.size(); i++) {
+            Sample sample = samples.get(i);
+            targets[i] = sample.targetNode();
+            contexts[i] = sample.contextNode();
+            positives[i] = SkipGram.isPositive(sample.label());
+        }
+
+        this.sliceRows = new int[settings.syncsPerEpoch()][];
+        boolean[] read = new boolean[numOfVertices];
+        for (int slice = 0; slice < sliceRows.length; slice++) {
+            IntArrayList rows = new IntArrayList();
+            for (int i = sliceBegin(slice); i < sliceBegin(slice + 1); i++) {
+                markRead(targets[i], read, rows);
+                markRead(contexts[i], read, rows);
+            }
+            for (int k = 0; k < rows.size(); k++) {
+                read[rows.get(k)] = false;
+            }
+            sliceRows[slice] = rows.toArray();
+        }
+    }
+
+    private static void markRead(int row, boolean[] read, IntArrayList rows) {
+        if (!read[row]) {
+            read[row] = true;
+            rows.add(row);
+        }
+    }
+
+    private int sliceBegin(int slice) {
+        return (int) ((long) targets.length * slice / settings.syncsPerEpoch());
+    }
+
+    /**
+     * Returns the number of samples of this shard.
+     *
+     * @return the sample count
+     */
+    public int sampleCount() {
+        return targets.length;
+    }
+
+    /**
+     * Connects to the parameter server and trains until its last round.
+     *
+     * @param host the server host
+     * @param port the server port
+     * @throws IOException if the connection fails or the server disagrees on the model shape
+     */
+    public void run(String host, int port) throws IOException {
+        SkipGram skipGram = new SkipGram(numOfVertices,
+                List.of(),
+                settings.embeddingDimension(),
+                1,
+                settings.learningRate(),
+                settings.seed(),
+                new TrainingMetrics());
+        EmbeddingMatrix embeddings = skipGram.getEmbeddingMatrix();
+        int dimension = settings.embeddingDimension();
+        int maxSliceRows = 0;
+        for (int[] rows : sliceRows) {
+            maxSliceRows = Math.max(maxSliceRows, rows.length);
+        }
+        if ((long) maxSliceRows * dimension > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("A slice of " + maxSliceRows + " rows x " + dimension
+                    + " does not fit in one array; use more syncsPerEpoch");
+        }
+        float[] values = new float[maxSliceRows * dimension];
+        boolean[] touched = new boolean[maxSliceRows];
+        float[] gradient = new float[dimension];
+        ByteBuffer scratch = ShardProtocol.scratchBuffer();
+
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(ShardProtocol.MAGIC);
+            out.writeInt(shard);
+            out.flush();
+            int rows = in.readInt();
+            int serverDimension = in.readInt();
+            int rounds = in.readInt();
+            if (rows != numOfVertices || serverDimension != dimension) {
+                throw new IOException("Server model is " + rows + " x " + serverDimension
+                        + ", shard expects " + numOfVertices + " x " + dimension);
+            }
+
+            for (int round = 0; round < rounds; round++) {
+                int slice = round % settings.syncsPerEpoch();
+                int[] rowsOfSlice = sliceRows[slice];
+                out.writeInt(rowsOfSlice.length);
+                for (int row : rowsOfSlice) {
+                    out.writeInt(row);
+                }
+                out.flush();
+                ShardProtocol.readFloats(in, values, 0, rowsOfSlice.length * dimension, scratch);
+                for (int k = 0; k < rowsOfSlice.length; k++) {
+                    for (int column = 0; column < dimension; column++) {
+                        embeddings.set(rowsOfSlice[k], column, values[k * dimension + column]);
+                    }
+                }
+
+                int begin = sliceBegin(slice);
+                int end = sliceBegin(slice + 1);
+                long start = System.nanoTime();
+                double loss = 0;
+                for (int i = begin; i < end; i++) {
+                    loss += skipGram.trainPair(targets[i], contexts[i], positives[i], gradient);
+                }
+                long trainingNanos = System.nanoTime() - start;
+
+                // the received values are replaced by the deltas of the rows
+                int touchedRows = 0;
+                for (int k = 0; k < rowsOfSlice.length; k++) {
+                    touched[k] = false;
+                    for (int column = 0; column < dimension; column++) {
+                        float delta = embeddings.get(rowsOfSlice[k], column) - values[k * dimension + column];
+                        values[k * dimension + column] = delta;
+                        touched[k] |= delta != 0;
+                    }
+                    if (touched[k]) {
+                        touchedRows++;
+                    }
+                }
+                out.writeLong(end - begin);
+                out.writeDouble(loss);
+                out.writeLong(trainingNanos);
+                out.writeInt(touchedRows);
+                for (int k = 0; k < rowsOfSlice.length; k++) {
+                    if (touched[k]) {
+                        out.writeInt(rowsOfSlice[k]);
+                        ShardProtocol.writeFloats(out, values, k * dimension, dimension, scratch);
+                    }
+                }
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * Worker process entry point, started by {@link ShardedTraining}.
+     *
+     * <pre>
+     * ShardWorker &lt;host&gt; &lt;port&gt; &lt;shard&gt; &lt;graphFile&gt; &lt;settings...&gt;
+     * </pre>
+     *
+     * @param args connection, shard, graph file and {@link ShardSettings} arguments
+     * @throws IOException if the graph cannot be read or the connection fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4 + ShardSettings.argumentCount()) {
+            throw new IllegalArgumentException("usage: ShardWorker <host> <port> <shard> <graphFile> <settings...>");
+        }
+        int shard = Integer.parseInt(args[2]);
+        ShardSettings settings = ShardSettings.fromArguments(args, 4);
+        ImmutableGraphData<Integer> graph = EdgeListReader.read(Paths.get(args[3]), GraphType.Directed);
+        VertexIndexMapping<Integer> mapper = new VertexIndexMapping<>(graph);
+
+        long start = System.nanoTime();
+        ShardWorker<Integer> worker = new ShardWorker<>(graph, mapper, shard, settings);
+        System.out.printf("Shard %s: %s samples prepared in %.3f s\n", shard, worker.sampleCount(), (System.nanoTime() - start) / 1e9);
+        worker.run(args[0], Integer.parseInt(args[1]));
+    }
+}
@@ -0,0 +1,167 @@
+package RandomWalksEmbedding.Sharded;
+
+import Core.EdgeListReader;
+import Core.GraphType;
+import Core.ImmutableGraphData;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingAllocator;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingMatrix;
+import RandomWalksEmbedding.LearningModel.SkipGram;
+import RandomWalksEmbedding.LearningModel.TrainingObjective;
+import RandomWalksEmbedding.Metrics.LoggingTrainingListener;
+import RandomWalksEmbedding.Metrics.TrainingMetrics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a sharded training job on one machine: a {@link ParameterServer} in this JVM and
+ * one {@link ShardWorker} JVM per shard, started with the current classpath.
+ *
+ * <p>Every process reads the same edge-list file, so all of them build the same vertex
+ * index mapping. The model starts from the same random initialization as a single-process
+ * {@link SkipGram} with the same seed. If a worker exits abnormally the server is closed
+ * and the remaining workers are terminated.</p>
+ */
+public final class ShardedTraining {
+    private ShardedTraining() {
+    }
+
+    /**
+     * Trains embeddings for the graph in an edge-list file with one worker process per shard.
+     *
+     * @param graphFile the edge-list file, read by every process
+     * @param settings the run settings
+     * @param metrics metrics receiving the per-round throughput and loss of all workers
+     * @param jvmOptions extra options for the worker JVMs, such as {@code -Xmx4g}
+     * @return the trained embeddings, indexed like {@code new VertexIndexMapping<>(graph)}
+     * @throws IOException if the graph cannot be read, a worker cannot be started or synchronization fails
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the workers
+     */
+    public static EmbeddingMatrix train(Path graphFile, ShardSettings settings, TrainingMetrics metrics, List<String> jvmOptions) throws IOException, InterruptedException {
+        return train(graphFile, settings, metrics, jvmOptions, EmbeddingAllocator.heap());
+    }
+
+    /**
+     * Trains embeddings with one worker process per shard, keeping the global model of the
+     * parameter server in matrices from the given allocator.
+     *
+     * @param graphFile the edge-list file, read by every process
+     * @param settings the run settings
+     * @param metrics metrics receiving the per-round throughput and loss of all workers
+     * @param jvmOptions extra options for the worker JVMs, such as {@code -Xmx4g}
+     * @param allocator allocates the initial and the global model
+     * @return the trained embeddings, indexed like {@code new VertexIndexMapping<>(graph)}
+     * @throws IOException if the graph cannot be read, a worker cannot be started or synchronization fails
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the workers
+     */
+    public static EmbeddingMatrix train(Path graphFile, ShardSettings settings, TrainingMetrics metrics, List<String> jvmOptions, EmbeddingAllocator allocator) throws IOException, InterruptedException {
+        Objects.requireNonNull(settings, "settings");
+        Objects.requireNonNull(jvmOptions, "jvmOptions");
+        Objects.requireNonNull(allocator, "allocator");
+        ImmutableGraphData<Integer> graph = EdgeListReader.read(graphFile, GraphType.Directed);
+        EmbeddingMatrix initialModel = new SkipGram(graph.vertexCount(),
+                List.of(),
+                settings.embeddingDimension(),
+                1,
+                settings.learningRate(),
+                settings.seed(),
+                new TrainingMetrics(),
+                TrainingObjective.NegativeSampling,
+                null,
+                allocator).getEmbeddingMatrix();
+        metrics.setLearningRate(settings.learningRate());
+
+        List<Process> workers = new ArrayList<>();
+        ExecutorService serverThread = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "parameter-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (ParameterServer server = new ParameterServer(initialModel, settings.numOfShards(), settings.rounds(), metrics, allocator)) {
+            Future<EmbeddingMatrix> model = serverThread.submit(server::serve);
+            String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+            for (int shard = 0; shard < settings.numOfShards(); shard++) {
+                List<String> command = new ArrayList<>();
+                command.add(java);
+                command.addAll(jvmOptions);
+                command.addAll(List.of("-cp", System.getProperty("java.class.path"), ShardWorker.class.getName(),
+                        "127.0.0.1", Integer.toString(server.port()), Integer.toString(shard), graphFile.toString()));
+                command.addAll(Arrays.asList(settings.toArguments()));
+                Process worker = new ProcessBuilder(command).inheritIO().start();
+                workers.add(worker);
+                worker.onExit().thenAccept(exited -> {
+                    if (exited.exitValue() != 0) {
+                        closeQuietly(server);
+                    }
+                });
+            }
+
+            EmbeddingMatrix result = model.get();
+            for (Process worker : workers) {
+                if (worker.waitFor() != 0) {
+                    throw new IOException("Worker exited with status " + worker.exitValue());
+                }
+            }
+            return result;
+        } catch (ExecutionException e) {
+            throw new IOException("Parameter server failed", e.getCause());
+        } finally {
+            serverThread.shutdownNow();
+            for (Process worker : workers) {
+                worker.destroy();
+            }
+        }
+    }
+
+    private static void closeQuietly(ParameterServer server) {
+        try {
+            server.close();
+        } catch (IOException ignored) {
+            // the failing worker is reported by its exit status
+        }
+    }
+
+    /**
+     * Command-line entry point.
+     *
+     * <pre>
+     * ShardedTraining &lt;graphFile&gt; &lt;shards&gt; [epochs] [syncsPerEpoch]
+     * </pre>
+     *
+     * @param args graph file, number of shards and optionally epochs and synchronizations per epoch
+     * @throws Exception if training fails
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("usage: ShardedTraining <graphFile> <shards> [epochs] [syncsPerEpoch]");
+        }
+        var settings = new ShardSettings(Integer.parseInt(args[1]),
+                1,
+                100,
+                2,
+                128,
+                args.length > 2 ? Integer.parseInt(args[2]) : 5,
+                args.length > 3 ? Integer.parseInt(args[3]) : 4,
+                0.025,
+                12345L);
+        var metrics = new TrainingMetrics();
+        metrics.addListener(new LoggingTrainingListener(System.out));
+
+        var start = System.nanoTime();
+        var embeddings = train(Paths.get(args[0]), settings, metrics, List.of());
+        System.out.printf("Sharded run with %s workers: %s x %s embeddings in %.3f s\n",
+                settings.numOfShards(),
+                embeddings.rows(),
+                embeddings.dimension(),
+                (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,82 @@
+package RandomWalksEmbedding.Sharded;
+
+import Core.VertexIndexMapping;
+
+import java.util.Objects;
+
+/**
+ * Assigns every indexed vertex to one shard by {@code index % numOfShards}.
+ *
+ * <p>Indices follow the vertex order of the graph, which usually correlates with
+ * degree or locality; striping instead of contiguous ranges keeps the shards close
+ * in size and in number of walk samples.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class VertexPartition<V> {
+    private final VertexIndexMapping<V> mapper;
+    private final int numOfShards;
+
+    /**
+     * Creates a partition over the given mapping.
+     *
+     * @param mapper the vertex index mapping shared by all shards
+     * @param numOfShards number of shards
+     * @throws IllegalArgumentException if numOfShards is not positive
+     */
+    public VertexPartition(VertexIndexMapping<V> mapper, int numOfShards) {
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        if (numOfShards < 1) {
+            throw new IllegalArgumentException("numOfShards must be positive");
+        }
+        this.numOfShards = numOfShards;
+    }
+
+    /**
+     * Returns the shard owning a vertex index.
+     *
+     * @param index the vertex index
+     * @return the shard in [0, numOfShards)
+     */
+    public int shardOf(int index) {
+        return index % numOfShards;
+    }
+
+    /**
+     * Returns the shard owning a vertex.
+     *
+     * @param vertex the vertex
+     * @return the shard in [0, numOfShards)
+     */
+    public int shardOf(V vertex) {
+        return shardOf(mapper.indexForVertex(vertex));
+    }
+
+    /**
+     * Returns the indices of the vertices owned by a shard, in ascending order.
+     *
+     * @param shard the shard
+     * @return the vertex indices
+     * @throws IllegalArgumentException if the shard does not exist
+     */
+    public int[] vertices(int shard) {
+        if (shard < 0 || shard >= numOfShards) {
+            throw new IllegalArgumentException("shard must be in [0, " + numOfShards + ")");
+        }
+        int count = Math.max(0, (mapper.size() - shard + numOfShards - 1) / numOfShards);
+        int[] vertices = new int[count];
+        for (int i = 0; i < count; i++) {
+            vertices[i] = shard + i * numOfShards;
+        }
+        return vertices;
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return the shard count
+     */
+    public int numOfShards() {
+        return numOfShards;
+    }
+}
@@ -1,35 +1,70 @@
 package RandomWalksEmbedding.WalkModel;
 
 import Core.ImmutableGraphData;
+import Core.PrimitiveCollections.IntArrayList;
 import RandomWalksEmbedding.WalkModel.Strategy.WalkStrategy;
-import representation.AdjacentList.Neighbor;
 import Core.VertexIndexMapping;
-import representation.AdjacentList.ImmutableAdjacentList;
+import representation.CompressedSparseRow.CompressedSparseRowModel.CompressedSparseRowData;
+import representation.CompressedSparseRow.ImmutableCompressedSparseRow;
+import representation.CompressedSparseRow.MutableCompressedSparseRow;
 
 import java.util.*;
 
 /**
- * Implements the DeepWalk uniform random walk strategy over an immutable adjacency list.
+ * Implements the DeepWalk uniform random walk strategy over an immutable CSR graph.
  * Each step selects one outgoing neighbor with equal probability to form a walk sequence.
  */
 public class DeepWalk<V> implements WalkStrategy<V> {
-    private final Map<Integer, List<Neighbor<Integer>>> adjacentList;
+    private final int[] offsets;
+    private final int[] destinations;
+    private final MutableCompressedSparseRow mutableGraph;
     private final VertexIndexMapping<V> mapper;
     private final Random random;
 
     /**
      * Constructs a DeepWalk strategy by preprocessing the input graph into an
-     * immutable adjacency list and initializing the vertex-to-index mapping.
+     * immutable CSR representation and initializing the vertex-to-index mapping.
      *
      * @param immutableGraphData immutable graph structure containing vertices and edges
      * @param mapping            mapping from generic vertices to internal integer node IDs
      * @param randomSeed seed for controlling randomness and ensuring reproducible sampling
      */
     public DeepWalk(ImmutableGraphData<V> immutableGraphData, VertexIndexMapping<V> mapping, long randomSeed) {
-        ImmutableGraphData<V> immutableGraphDataObj = Objects.requireNonNull(immutableGraphData, "immutableGraphData");
+        this(ImmutableCompressedSparseRow.fromGraphData(Objects.requireNonNull(immutableGraphData, "immutableGraphData"),
+                Objects.requireNonNull(mapping, "mapping")), mapping, randomSeed);
+    }
+
+    /**
+     * Constructs a DeepWalk strategy over an already indexed CSR graph.
+     *
+     * @param graph     CSR graph whose indices follow the given mapping
+     * @param mapping   mapping from generic vertices to internal integer node IDs
+     * @param randomSeed seed for controlling randomness and ensuring reproducible sampling
+     */
+    public DeepWalk(CompressedSparseRowData graph, VertexIndexMapping<V> mapping, long randomSeed) {
+        CompressedSparseRowData graphObj = Objects.requireNonNull(graph, "graph");
+        this.mapper = Objects.requireNonNull(mapping, "mapping");
+        this.offsets = graphObj.getOffsets();
+        this.destinations = graphObj.getDestinations();
+        this.mutableGraph = null;
+
+        this.random = new Random(randomSeed);
+    }
+
+    /**
+     * Constructs a DeepWalk strategy that walks the adjacency lists of a mutable graph
+     * directly, without flattening them into CSR arrays. The graph must not change while
+     * walks are generated.
+     *
+     * @param graph     mutable graph whose indices follow the given mapping
+     * @param mapping   mapping from generic vertices to internal integer node IDs
+     * @param randomSeed seed for controlling randomness and ensuring reproducible sampling
+     */
+    public DeepWalk(MutableCompressedSparseRow graph, VertexIndexMapping<V> mapping, long randomSeed) {
+        this.mutableGraph = Objects.requireNonNull(graph, "graph");
         this.mapper = Objects.requireNonNull(mapping, "mapping");
-        this.adjacentList = new ImmutableAdjacentList<>(immutableGraphDataObj, mapping)
-                .getAdjacentMap();
+        this.offsets = null;
+        this.destinations = null;
 
         this.random = new Random(randomSeed);
     }
@@ -43,20 +78,45 @@ public class DeepWalk<V> implements WalkStrategy<V> {
      */
     @Override
     public ArrayList<Integer> generateWalk(V start, int hops) {
-        ArrayList<Integer> sequence = new ArrayList<>();
-        int current = mapper.indexForVertex(start);
+        IntArrayList path = new IntArrayList(hops + 1);
+        walk(mapper.indexForVertex(start), hops, this.random, path);
+        ArrayList<Integer> sequence = new ArrayList<>(path.size());
+        for (int i = 0; i < path.size(); i++) {
+            sequence.add(path.get(i));
+        }
+        return sequence;
+    }
+
+    /**
+     * Appends a random walk over vertex indices to a primitive buffer.
+     *
+     * <p>Takes the random source explicitly so that concurrent walkers can each use
+     * their own seeded stream.</p>
+     *
+     * @param start  index of the starting vertex
+     * @param hops   number of transitions to perform
+     * @param random source of the neighbor choices
+     * @param sequence buffer receiving the walk, starting with {@code start}
+     * @return number of indices appended
+     */
+    public int walk(int start, int hops, Random random, IntArrayList sequence) {
+        int current = start;
         sequence.add(current);
+        int length = 1;
         for (int i = 0; i < hops; i++) {
-            List<Neighbor<Integer>> neighbors = adjacentList.get(current);
-            if (neighbors == null || neighbors.isEmpty()) {
+            int degree = mutableGraph == null ? offsets[current + 1] - offsets[current] : mutableGraph.degree(current);
+            if (degree == 0) {
                 break;
             }
 
-            int uniformNeighbor = this.random.nextInt(neighbors.size());
-            int next = neighbors.get(uniformNeighbor).destination();
+            int uniformNeighbor = random.nextInt(degree);
+            int next = mutableGraph == null
+                    ? destinations[offsets[current] + uniformNeighbor]
+                    : mutableGraph.outNeighbors(current).get(uniformNeighbor);
             sequence.add(next);
+            length++;
             current = next;
         }
-        return sequence;
+        return length;
     }
 }
@@ -0,0 +1,60 @@
+package representation.CompressedSparseRow.CompressedSparseRowModel;
+
+/**
+ * Interface for graph representers that expose a compressed sparse row (CSR) representation.
+ *
+ * <p>The outgoing neighbors of vertex {@code v} are stored in
+ * {@code getDestinations()[getOffsets()[v] .. getOffsets()[v + 1])} with the
+ * matching weights at the same positions of {@code getWeights()}.</p>
+ */
+public abstract class CompressedSparseRowData {
+    /**
+     * Returns the row offsets, of length {@code vertexCount() + 1}.
+     *
+     * @return the row offsets
+     */
+    public abstract int[] getOffsets();
+
+    /**
+     * Returns the destination index of every edge, grouped by source.
+     *
+     * @return the edge destinations
+     */
+    public abstract int[] getDestinations();
+
+    /**
+     * Returns the weight of every edge, aligned with {@link #getDestinations()}.
+     *
+     * @return the edge weights
+     */
+    public abstract float[] getWeights();
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return the vertex count
+     */
+    public int vertexCount() {
+        return getOffsets().length - 1;
+    }
+
+    /**
+     * Returns the number of edges.
+     *
+     * @return the edge count
+     */
+    public int edgeCount() {
+        return getOffsets()[vertexCount()];
+    }
+
+    /**
+     * Returns the out-degree of a vertex.
+     *
+     * @param vertex the vertex index
+     * @return number of outgoing edges
+     */
+    public int degree(int vertex) {
+        int[] offsets = getOffsets();
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+}
@@ -0,0 +1,110 @@
+package representation.CompressedSparseRow;
+
+import Core.Edge;
+import Core.ImmutableGraphData;
+import Core.VertexIndexMapping;
+import representation.CompressedSparseRow.CompressedSparseRowModel.CompressedSparseRowData;
+
+import java.util.Objects;
+
+/**
+ * Immutable compressed sparse row representation backed by indexed vertices.
+ *
+ * <p>Stores the whole edge set in three flat primitive arrays, which keeps
+ * graphs with hundreds of millions of edges compact and cache friendly.
+ * Within a row, edges keep the order in which they were supplied.</p>
+ *
+ * <p>The arrays are shared rather than copied and must not be modified by callers.</p>
+ */
+public class ImmutableCompressedSparseRow extends CompressedSparseRowData {
+    private final int[] offsets;
+    private final int[] destinations;
+    private final float[] weights;
+
+    private ImmutableCompressedSparseRow(int[] offsets, int[] destinations, float[] weights) {
+        this.offsets = offsets;
+        this.destinations = destinations;
+        this.weights = weights;
+    }
+
+    /**
+     * Constructs a CSR representation from an immutable graph snapshot.
+     *
+     * @param graphData the immutable graph snapshot
+     * @param mapper mapping from vertices to integer indices and vice versa
+     * @param <V> the original vertex type
+     * @return the CSR representation
+     */
+    public static <V> ImmutableCompressedSparseRow fromGraphData(ImmutableGraphData<V> graphData, VertexIndexMapping<V> mapper) {
+        Objects.requireNonNull(graphData, "GraphData");
+        Objects.requireNonNull(mapper, "mapper");
+        int edgeCount = graphData.edgeCount();
+        int[] sources = new int[edgeCount];
+        int[] destinations = new int[edgeCount];
+        float[] weights = new float[edgeCount];
+        int position = 0;
+        for (Edge<V> edge : graphData.edgeSet()) {
+            sources[position] = mapper.indexForVertex(edge.source());
+            destinations[position] = mapper.indexForVertex(edge.destination());
+            weights[position] = edge.weight();
+            position++;
+        }
+        return fromEdgeArrays(graphData.vertexCount(), sources, destinations, weights, edgeCount);
+    }
+
+    /**
+     * Constructs a CSR representation from parallel edge arrays using a counting sort
+     * over the source indices. Only the first {@code edgeCount} entries are read.
+     *
+     * @param vertexCount number of vertices, indices must lie in [0, vertexCount)
+     * @param sources the source index of every edge
+     * @param destinations the destination index of every edge
+     * @param weights the weight of every edge, or null for unit weights
+     * @param edgeCount number of edges to read
+     * @return the CSR representation
+     * @throws IllegalArgumentException if an index lies outside [0, vertexCount)
+     */
+    public static ImmutableCompressedSparseRow fromEdgeArrays(int vertexCount, int[] sources, int[] destinations, float[] weights, int edgeCount) {
+        if (vertexCount < 0 || edgeCount < 0) {
+            throw new IllegalArgumentException("vertexCount and edgeCount must be non-negative");
+        }
+        int[] offsets = new int[vertexCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            int source = sources[e];
+            int destination = destinations[e];
+            if (source < 0 || source >= vertexCount || destination < 0 || destination >= vertexCount) {
+                throw new IllegalArgumentException("Edge " + source + " -> " + destination + " is out of bounds");
+            }
+            offsets[source + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] cursor = new int[vertexCount];
+        System.arraycopy(offsets, 0, cursor, 0, vertexCount);
+        int[] sortedDestinations = new int[edgeCount];
+        float[] sortedWeights = new float[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            int slot = cursor[sources[e]]++;
+            sortedDestinations[slot] = destinations[e];
+            sortedWeights[slot] = weights == null ? 1.0f : weights[e];
+        }
+        return new ImmutableCompressedSparseRow(offsets, sortedDestinations, sortedWeights);
+    }
+
+    @Override
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    @Override
+    public int[] getDestinations() {
+        return destinations;
+    }
+
+    @Override
+    public float[] getWeights() {
+        return weights;
+    }
+}
@@ -0,0 +1,216 @@
+package representation.CompressedSparseRow;
+
+import Core.Edge;
+import Core.ImmutableGraphData;
+import Core.PrimitiveCollections.FloatArrayList;
+import Core.PrimitiveCollections.IntArrayList;
+import Core.VertexIndexMapping;
+import representation.CompressedSparseRow.CompressedSparseRowModel.CompressedSparseRowData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Indexed graph that accepts edge insertions and deletions in place.
+ *
+ * <p>Each vertex keeps growable primitive lists of its outgoing edges and of its
+ * predecessors, so a change costs time proportional to the degrees involved rather
+ * than a rebuild of the whole graph. {@code DeepWalk} walks the lists directly; the
+ * CSR arrays required by other readers are flattened lazily from the lists and cached
+ * until the next change.</p>
+ *
+ * <p>This class is not thread-safe; apply changes from one thread and hand the
+ * CSR arrays to readers only after the changes are done.</p>
+ */
+public class MutableCompressedSparseRow extends CompressedSparseRowData {
+    private final List<IntArrayList> destinations = new ArrayList<>();
+    private final List<FloatArrayList> weights = new ArrayList<>();
+    private final List<IntArrayList> predecessors = new ArrayList<>();
+    private int numOfEdges;
+
+    private int[] cachedOffsets;
+    private int[] cachedDestinations;
+    private float[] cachedWeights;
+
+    /**
+     * Creates a graph with the given number of isolated vertices.
+     *
+     * @param vertexCount initial number of vertices
+     */
+    public MutableCompressedSparseRow(int vertexCount) {
+        addVertices(vertexCount);
+    }
+
+    /**
+     * Creates a mutable graph from an immutable graph snapshot.
+     *
+     * @param graphData the immutable graph snapshot
+     * @param mapper mapping from vertices to integer indices and vice versa
+     * @param <V> the original vertex type
+     * @return the mutable graph
+     */
+    public static <V> MutableCompressedSparseRow fromGraphData(ImmutableGraphData<V> graphData, VertexIndexMapping<V> mapper) {
+        Objects.requireNonNull(graphData, "GraphData");
+        Objects.requireNonNull(mapper, "mapper");
+        MutableCompressedSparseRow graph = new MutableCompressedSparseRow(graphData.vertexCount());
+        for (Edge<V> edge : graphData.edgeSet()) {
+            graph.addEdge(mapper.indexForVertex(edge.source()), mapper.indexForVertex(edge.destination()), edge.weight());
+        }
+        return graph;
+    }
+
+    /**
+     * Grows the graph to at least the given number of vertices; new vertices are isolated.
+     *
+     * @param vertexCount the required vertex count
+     */
+    public void ensureVertexCount(int vertexCount) {
+        addVertices(vertexCount);
+    }
+
+    private void addVertices(int vertexCount) {
+        while (destinations.size() < vertexCount) {
+            destinations.add(new IntArrayList(4));
+            weights.add(new FloatArrayList(4));
+            predecessors.add(new IntArrayList(4));
+            invalidate();
+        }
+    }
+
+    /**
+     * Inserts an edge, or updates its weight if it already exists.
+     *
+     * @param source the source index
+     * @param destination the destination index
+     * @param weight the edge weight
+     * @return true if a new edge was inserted
+     */
+    public boolean addEdge(int source, int destination, float weight) {
+        invalidate();
+        int position = find(source, destination);
+        if (position >= 0) {
+            weights.get(source).set(position, weight);
+            return false;
+        }
+        destinations.get(source).add(destination);
+        weights.get(source).add(weight);
+        predecessors.get(destination).add(source);
+        numOfEdges++;
+        return true;
+    }
+
+    /**
+     * Deletes an edge if it exists.
+     *
+     * @param source the source index
+     * @param destination the destination index
+     * @return true if an edge was deleted
+     */
+    public boolean removeEdge(int source, int destination) {
+        int position = find(source, destination);
+        if (position < 0) {
+            return false;
+        }
+        invalidate();
+        destinations.get(source).removeAt(position);
+        weights.get(source).removeAt(position);
+        IntArrayList incoming = predecessors.get(destination);
+        for (int i = 0; i < incoming.size(); i++) {
+            if (incoming.get(i) == source) {
+                incoming.removeAt(i);
+                break;
+            }
+        }
+        numOfEdges--;
+        return true;
+    }
+
+    /**
+     * Returns the outgoing neighbors of a vertex; the list must not be modified.
+     *
+     * @param vertex the vertex index
+     * @return the destination indices
+     */
+    public IntArrayList outNeighbors(int vertex) {
+        return destinations.get(vertex);
+    }
+
+    /**
+     * Returns the vertices with an edge into the given vertex; the list must not be modified.
+     *
+     * @param vertex the vertex index
+     * @return the source indices
+     */
+    public IntArrayList inNeighbors(int vertex) {
+        return predecessors.get(vertex);
+    }
+
+    @Override
+    public int vertexCount() {
+        return destinations.size();
+    }
+
+    @Override
+    public int edgeCount() {
+        return numOfEdges;
+    }
+
+    @Override
+    public int degree(int vertex) {
+        return destinations.get(vertex).size();
+    }
+
+    @Override
+    public int[] getOffsets() {
+        flatten();
+        return cachedOffsets;
+    }
+
+    @Override
+    public int[] getDestinations() {
+        flatten();
+        return cachedDestinations;
+    }
+
+    @Override
+    public float[] getWeights() {
+        flatten();
+        return cachedWeights;
+    }
+
+    private int find(int source, int destination) {
+        IntArrayList row = destinations.get(source);
+        for (int i = 0; i < row.size(); i++) {
+            if (row.get(i) == destination) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void invalidate() {
+        cachedOffsets = null;
+        cachedDestinations = null;
+        cachedWeights = null;
+    }
+
+    private void flatten() {
+        if (cachedOffsets != null) {
+            return;
+        }
+        int n = destinations.size();
+        int[] offsets = new int[n + 1];
+        int[] flatDestinations = new int[numOfEdges];
+        float[] flatWeights = new float[numOfEdges];
+        for (int vertex = 0; vertex < n; vertex++) {
+            IntArrayList row = destinations.get(vertex);
+            System.arraycopy(row.elements(), 0, flatDestinations, offsets[vertex], row.size());
+            System.arraycopy(weights.get(vertex).elements(), 0, flatWeights, offsets[vertex], row.size());
+            offsets[vertex + 1] = offsets[vertex] + row.size();
+        }
+        cachedDestinations = flatDestinations;
+        cachedWeights = flatWeights;
+        cachedOffsets = offsets;
+    }
+}
@@ -0,0 +1,55 @@
+package RandomWalksEmbedding.PageRank;
+
+import Core.GraphBuilder;
+import Core.GraphType;
+import Core.ImmutableGraphData;
+import Core.VertexIndexMapping;
+import RandomWalksEmbedding.WalkModel.DeepWalk;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PersonalizedPageRankTest {
+    private static final int NUM_OF_NODES = 1000;
+
+    private static ImmutableGraphData<Integer> graph;
+    private static VertexIndexMapping<Integer> mapper;
+
+    @BeforeAll
+    static void buildGraph() {
+        Random random = new Random(3);
+        GraphBuilder<Integer> builder = new GraphBuilder<>(GraphType.Directed);
+        for (int node = 0; node < NUM_OF_NODES; node++) {
+            // a few nodes without out-edges exercise the dangling case
+            if (node % 50 != 49) {
+                for (int edge = 0; edge < 3; edge++) {
+                    builder.addConnection(node, random.nextInt(NUM_OF_NODES), 1f);
+                }
+            }
+        }
+        graph = builder.build();
+        mapper = new VertexIndexMapping<>(graph);
+    }
+
+    @Test
+    void singleSourceScoresDoNotDependOnThreads() {
+        // not a multiple of the chunk size, so the last chunk is partial
+        assertEquals(topK(1, List.of(5), 100_017, 42L), topK(4, List.of(5), 100_017, 42L));
+    }
+
+    @Test
+    void multiSourceScoresDoNotDependOnThreads() {
+        List<Integer> sources = List.of(1, 10, 100, 500);
+        assertEquals(topK(1, sources, 50_000, 7L), topK(4, sources, 50_000, 7L));
+    }
+
+    private static List<RankedVertex<Integer>> topK(int threads, List<Integer> sources, long numOfWalks, long seed) {
+        try (PersonalizedPageRank<Integer> ppr = new PersonalizedPageRank<>(new DeepWalk<>(graph, mapper, 1L), mapper, 0.15, threads)) {
+            return ppr.topK(sources, 50, numOfWalks, seed);
+        }
+    }
+}
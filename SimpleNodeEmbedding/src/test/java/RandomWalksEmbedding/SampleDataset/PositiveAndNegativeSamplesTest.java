@@ -0,0 +1,66 @@
+package RandomWalksEmbedding.SampleDataset;
+
+import Core.GraphBuilder;
+import Core.GraphType;
+import Core.VertexIndexMapping;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class PositiveAndNegativeSamplesTest {
+    private static final int NUM_OF_NODES = 500;
+
+    private static VertexIndexMapping<Integer> mapper;
+    private static ArrayList<ArrayList<Integer>> walks;
+
+    @BeforeAll
+    static void buildWalks() {
+        Random random = new Random(1);
+        GraphBuilder<Integer> builder = new GraphBuilder<>(GraphType.Directed);
+        for (int node = 0; node < NUM_OF_NODES; node++) {
+            for (int edge = 0; edge < 4; edge++) {
+                builder.addConnection(node, random.nextInt(NUM_OF_NODES), 1f);
+            }
+        }
+        mapper = new VertexIndexMapping<>(builder.build());
+        walks = new ArrayList<>();
+        for (int walk = 0; walk < 700; walk++) {
+            ArrayList<Integer> nodes = new ArrayList<>();
+            for (int step = 0; step < 30; step++) {
+                nodes.add(random.nextInt(NUM_OF_NODES));
+            }
+            walks.add(nodes);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"true, 0", "false, 0", "true, 1e-3", "false, 1e-3"})
+    void datasetDoesNotDependOnParallelism(boolean allowSampleDuplicate, double subsamplingThreshold) {
+        List<Sample> sequential = new PositiveAndNegativeSamples<>(mapper, walks, 3, allowSampleDuplicate, 7L, subsamplingThreshold, 1)
+                .generatePositiveNegativeSampleDataset();
+
+        for (int parallelism : new int[]{2, 4, 7}) {
+            List<Sample> parallel = new PositiveAndNegativeSamples<>(mapper, walks, 3, allowSampleDuplicate, 7L, subsamplingThreshold, parallelism)
+                    .generatePositiveNegativeSampleDataset();
+            assertEquals(sequential, parallel, "parallelism " + parallelism);
+        }
+        assertFalse(sequential.isEmpty());
+    }
+
+    @Test
+    void positiveDatasetDoesNotDependOnParallelism() {
+        List<Sample> sequential = new PositiveAndNegativeSamples<>(mapper, walks, 2, true, 11L, 0, 1)
+                .generatePositiveSampleDataset();
+        List<Sample> parallel = new PositiveAndNegativeSamples<>(mapper, walks, 2, true, 11L, 0, 4)
+                .generatePositiveSampleDataset();
+        assertEquals(sequential, parallel);
+    }
+}
@@ -0,0 +1,203 @@
+package RandomWalksEmbedding.Serving;
+
+import Core.GraphBuilder;
+import Core.GraphType;
+import Core.VertexIndexMapping;
+import RandomWalksEmbedding.Embedding.EmbeddingStrategy.EmbeddingMatrix;
+import RandomWalksEmbedding.Embedding.FloatEmbeddingMatrix;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotRegistryTest {
+    private static final int NUM_OF_NODES = 200;
+    private static final int DIMENSION = 8;
+    private static final int NUM_OF_VERSIONS = 2000;
+    private static final int NUM_OF_READERS = 4;
+
+    private VertexIndexMapping<Integer> mapper;
+    private List<CountingMatrix> allocated;
+    private SnapshotRegistry<Integer> registry;
+    private FloatEmbeddingMatrix model;
+
+    @BeforeEach
+    void createRegistry() {
+        GraphBuilder<Integer> builder = new GraphBuilder<>(GraphType.Directed);
+        for (int node = 0; node < NUM_OF_NODES; node++) {
+            builder.addConnection(node, (node + 1) % NUM_OF_NODES, 1f);
+        }
+        mapper = new VertexIndexMapping<>(builder.build());
+        allocated = new CopyOnWriteArrayList<>();
+        registry = new SnapshotRegistry<>((rows, dimension) -> {
+            CountingMatrix matrix = new CountingMatrix(rows, dimension);
+            allocated.add(matrix);
+            return matrix;
+        });
+        model = new FloatEmbeddingMatrix(NUM_OF_NODES, DIMENSION);
+    }
+
+    @Test
+    void leaseKeepsReplacedSnapshotOpenUntilClosed() {
+        registry.publish(mapper, model);
+        SnapshotLease<Integer> lease = registry.acquire();
+        registry.publish(mapper, model);
+        registry.publish(mapper, model);
+
+        assertFalse(lease.snapshot().isReleased());
+        assertEquals(0, allocated.get(0).closes.get());
+        assertEquals(1, allocated.get(1).closes.get());
+        assertEquals(3, registry.currentVersion());
+
+        lease.close();
+        lease.close();
+        assertEquals(1, allocated.get(0).closes.get());
+
+        registry.close();
+        assertEquals(1, allocated.get(2).closes.get());
+        assertThrows(IllegalStateException.class, registry::acquire);
+    }
+
+    @Test
+    void everySnapshotIsClosedExactlyOnceUnderConcurrentReaders() throws Exception {
+        List<EmbeddingSnapshot<Integer>> published = new ArrayList<>();
+        published.add(registry.publish(mapper, model));
+
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicLong violations = new AtomicLong();
+        AtomicLong reads = new AtomicLong();
+        ExecutorService readers = Executors.newFixedThreadPool(NUM_OF_READERS);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < NUM_OF_READERS; t++) {
+                boolean useLease = t % 2 == 0;
+                tasks.add(readers.submit(() -> {
+                    while (!stop.get()) {
+                        if (useLease) {
+                            try (SnapshotLease<Integer> lease = registry.acquire()) {
+                                violations.addAndGet(check(lease.snapshot()));
+                            }
+                        } else {
+                            violations.addAndGet(registry.read(SnapshotRegistryTest::check));
+                        }
+                        reads.incrementAndGet();
+                    }
+                }));
+            }
+            for (int version = 1; version <= NUM_OF_VERSIONS; version++) {
+                for (int row = 0; row < NUM_OF_NODES; row++) {
+                    for (int column = 0; column < DIMENSION; column++) {
+                        model.set(row, column, version);
+                    }
+                }
+                published.add(registry.publish(mapper, model));
+            }
+            stop.set(true);
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            stop.set(true);
+            readers.shutdown();
+        }
+        registry.close();
+
+        assertEquals(0, violations.get(), "torn or released snapshots seen by readers");
+        assertTrue(reads.get() > 0);
+        assertEquals(NUM_OF_VERSIONS + 1, allocated.size());
+        for (int i = 0; i < allocated.size(); i++) {
+            assertEquals(1, allocated.get(i).closes.get(), "closes of snapshot storage " + i);
+        }
+        for (EmbeddingSnapshot<Integer> snapshot : published) {
+            assertTrue(snapshot.isReleased(), "snapshot " + snapshot.version());
+        }
+    }
+
+    /**
+     * Counts the problems a reader sees in a leased snapshot: rows from different
+     * versions, or storage that has already been released or closed.
+     */
+    private static long check(EmbeddingSnapshot<Integer> snapshot) {
+        long problems = snapshot.isReleased() ? 1 : 0;
+        float expected = snapshot.get(0, 0);
+        for (int row = 0; row < snapshot.rows(); row++) {
+            if (snapshot.get(row, DIMENSION - 1) != expected) {
+                problems++;
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Heap matrix that counts how often it is closed and fails reads after the first close.
+     */
+    private static final class CountingMatrix implements EmbeddingMatrix, AutoCloseable {
+        private final FloatEmbeddingMatrix rows;
+        private final AtomicInteger closes = new AtomicInteger();
+
+        CountingMatrix(int rows, int dimension) {
+            this.rows = new FloatEmbeddingMatrix(rows, dimension);
+        }
+
+        @Override
+        public int rows() {
+            return rows.rows();
+        }
+
+        @Override
+        public int dimension() {
+            return rows.dimension();
+        }
+
+        @Override
+        public float get(int row, int column) {
+            if (closes.get() > 0) {
+                throw new IllegalStateException("Read after close");
+            }
+            return rows.get(row, column);
+        }
+
+        @Override
+        public long memoryBytes() {
+            return rows.memoryBytes();
+        }
+
+        @Override
+        public void set(int row, int column, float value) {
+            rows.set(row, column, value);
+        }
+
+        @Override
+        public void add(int row, int column, float delta) {
+            rows.add(row, column, delta);
+        }
+
+        @Override
+        public void copyTo(float[] destination) {
+            rows.copyTo(destination);
+        }
+
+        @Override
+        public void copyFrom(float[] source) {
+            rows.copyFrom(source);
+        }
+
+        @Override
+        public void close() {
+            closes.incrementAndGet();
+        }
+    }
+}